@@ -0,0 +1,118 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-first-request and resident memory (RSS after the first request)
+# of user-service for each startup configuration:
+#
+#   jvm      plain jar, default profile
+#   lazy     plain jar, prod profile (lazy init, Swagger off)
+#   aot      AOT-processed jar (mvn -Pstartup), prod profile
+#   aot-cds  AOT-processed, unpacked, with a class data sharing archive
+#   native   GraalVM native executable (mvn -Pnative), only with NATIVE=1
+#
+# Postgres and Kafka from application.properties must be reachable; NATIVE=1 needs
+# GraalVM (native-image) on the PATH.
+# Usage: [NATIVE=1] scripts/startup-benchmark.sh [runs-per-configuration]
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+NATIVE="${NATIVE:-0}"
+PORT="${PORT:-8080}"
+URL="http://localhost:${PORT}/api/users/health"
+MAIN_CLASS="com.example.userservice.UserServiceApplication"
+
+cd "$(dirname "$0")/.."
+WORK_DIR="target/startup-benchmark"
+REPORT="${WORK_DIR}/report.txt"
+rm -rf "${WORK_DIR}"
+mkdir -p "${WORK_DIR}"
+
+echo "Building plain jar..."
+mvn -B -q clean package -DskipTests
+cp target/user-service-*.jar "${WORK_DIR}/jvm.jar"
+
+echo "Building AOT-processed jar..."
+mvn -B -q -Pstartup clean package -DskipTests
+cp target/user-service-*.jar "${WORK_DIR}/aot.jar"
+
+# CDS needs a classpath of jar files only: it will not archive classes while the classpath
+# contains a non-empty directory. So unpack the AOT jar, put the application classes into a
+# jar of their own, and train the archive with a run that exits right after the context has
+# been refreshed
+mkdir -p "${WORK_DIR}/aot-unpacked"
+(cd "${WORK_DIR}/aot-unpacked" && jar -xf ../aot.jar)
+jar -cf "${WORK_DIR}/aot-unpacked/application.jar" -C "${WORK_DIR}/aot-unpacked/BOOT-INF/classes" .
+# Listed explicitly (not lib/*) so the training and measured runs see the same order
+CDS_CLASSPATH="${WORK_DIR}/aot-unpacked/application.jar"
+for lib in $(ls "${WORK_DIR}/aot-unpacked/BOOT-INF/lib/"*.jar | sort); do
+    CDS_CLASSPATH="${CDS_CLASSPATH}:${lib}"
+done
+if ! java -XX:ArchiveClassesAtExit="${WORK_DIR}/application.jsa" -Xlog:cds=info \
+        -Dspring.context.exit=onRefresh -Dspring.aot.enabled=true \
+        -cp "${CDS_CLASSPATH}" "${MAIN_CLASS}" --spring.profiles.active=prod > "${WORK_DIR}/cds-training.log" 2>&1; then
+    echo "CDS training run failed, see ${WORK_DIR}/cds-training.log" >&2
+    exit 1
+fi
+if [[ ! -s "${WORK_DIR}/application.jsa" ]] || grep -qE "\[error *\]\[cds\]|non-empty directory" "${WORK_DIR}/cds-training.log"; then
+    echo "CDS archive was not created, see ${WORK_DIR}/cds-training.log" >&2
+    exit 1
+fi
+
+if [[ "${NATIVE}" == "1" ]]; then
+    echo "Building native executable..."
+    mvn -B -q -Pnative native:compile -DskipTests
+    cp target/user-service "${WORK_DIR}/user-service-native"
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints milliseconds from process launch until the first successful request,
+# followed by the resident set size in KB at that point
+time_to_first_request() {
+    local start pid elapsed rss
+    start=$(now_ms)
+    "$@" > "${WORK_DIR}/app.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "${URL}"; do
+        if ! kill -0 "${pid}" 2>/dev/null; then
+            echo "Application exited before serving a request, see ${WORK_DIR}/app.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(ps -o rss= -p "${pid}" | tr -d ' ')
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    echo "${elapsed} ${rss}"
+}
+
+benchmark() {
+    local name="$1"
+    shift
+    local total=0 min=0 max=0 rss_total=0 ms rss
+    for _ in $(seq "${RUNS}"); do
+        read -r ms rss < <(time_to_first_request "$@")
+        total=$(( total + ms ))
+        rss_total=$(( rss_total + rss ))
+        if (( min == 0 || ms < min )); then min=${ms}; fi
+        if (( ms > max )); then max=${ms}; fi
+    done
+    printf "%-8s  avg %6d ms   min %6d ms   max %6d ms   rss %6d MB\n" "${name}" \
+        $(( total / RUNS )) "${min}" "${max}" $(( rss_total / RUNS / 1024 )) | tee -a "${REPORT}"
+}
+
+echo "Time to first request and RSS, ${RUNS} runs each" | tee "${REPORT}"
+benchmark jvm     java -jar "${WORK_DIR}/jvm.jar"
+benchmark lazy    java -jar "${WORK_DIR}/jvm.jar" --spring.profiles.active=prod
+benchmark aot     java -Dspring.aot.enabled=true -jar "${WORK_DIR}/aot.jar" --spring.profiles.active=prod
+# -Xshare:on: fail instead of silently running without the archive if it does not match
+benchmark aot-cds java -XX:SharedArchiveFile="${WORK_DIR}/application.jsa" -Xshare:on -Dspring.aot.enabled=true \
+                       -cp "${CDS_CLASSPATH}" "${MAIN_CLASS}" --spring.profiles.active=prod
+if [[ "${NATIVE}" == "1" ]]; then
+    benchmark native "${WORK_DIR}/user-service-native" --spring.profiles.active=prod
+fi
+
+echo "Report written to ${REPORT}"
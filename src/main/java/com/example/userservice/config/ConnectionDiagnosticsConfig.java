@@ -0,0 +1,64 @@
+package com.example.userservice.config;
+
+import com.example.userservice.diagnostics.ConnectionHoldEndpoint;
+import com.example.userservice.diagnostics.ConnectionHoldFilter;
+import com.example.userservice.diagnostics.ConnectionHoldTracker;
+import com.example.userservice.diagnostics.ConnectionTrackingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Diagnostic mode for connection usage: wraps the application DataSource to time every connection
+ * from checkout to close and exposes the result per endpoint at /actuator/connections.
+ * Captures a stack trace per checkout, so enable it for investigations rather than permanently.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.db.diagnostics", name = "enabled", havingValue = "true")
+public class ConnectionDiagnosticsConfig {
+
+    @Bean
+    public static ConnectionHoldTracker connectionHoldTracker(
+            @Value("${app.db.diagnostics.long-hold-threshold-ms:100}") long longHoldThresholdMillis) {
+        return new ConnectionHoldTracker(longHoldThresholdMillis);
+    }
+
+    /**
+     * Wraps the single-database DataSource. With sharding, ShardingConfig wraps each shard's pool
+     * instead, since its dataSource bean is a lazy proxy that would be timed from transaction begin.
+     */
+    @Bean
+    public static BeanPostProcessor connectionTrackingDataSourcePostProcessor(
+            ObjectProvider<ConnectionHoldTracker> tracker,
+            @Value("${app.sharding.enabled:false}") boolean shardingEnabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!shardingEnabled && beanName.equals("dataSource") && bean instanceof DataSource dataSource) {
+                    return new ConnectionTrackingDataSource(dataSource, tracker.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConnectionHoldFilter> connectionHoldFilter(ConnectionHoldTracker tracker) {
+        FilterRegistrationBean<ConnectionHoldFilter> registration =
+                new FilterRegistrationBean<>(new ConnectionHoldFilter(tracker));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ConnectionHoldEndpoint connectionHoldEndpoint(ConnectionHoldTracker tracker) {
+        return new ConnectionHoldEndpoint(tracker);
+    }
+}
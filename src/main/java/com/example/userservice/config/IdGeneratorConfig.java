@@ -0,0 +1,65 @@
+package com.example.userservice.config;
+
+import com.example.userservice.id.IdGenerator;
+import com.example.userservice.id.IdGenerators;
+import com.example.userservice.id.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Installs the application's {@link IdGenerator} for {@code @DistributedId}. A Snowflake generator
+ * is the default; sharding (see ShardingConfig) contributes its own implementation. Both take
+ * this instance's node id from {@code app.id.node-id}, which must be set and unique per instance.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public IdGenerator idGenerator(@Value("${app.id.node-id:#{null}}") Long nodeId,
+                                   @Value("${app.id.max-clock-skew-ms:1000}") long maxClockSkewMillis) {
+        return new SnowflakeIdGenerator(requireNodeId(nodeId), Clock.systemUTC(), maxClockSkewMillis);
+    }
+
+    /**
+     * There is deliberately no default: two instances with the same node id generate the same ids.
+     */
+    static long requireNodeId(Long nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException("app.id.node-id is not set; every instance needs its own node id "
+                    + "(e.g. APP_ID_NODE_ID from the StatefulSet pod index)");
+        }
+        return nodeId;
+    }
+
+    @Bean
+    public IdGeneratorInstaller idGeneratorInstaller(IdGenerator idGenerator) {
+        return new IdGeneratorInstaller(idGenerator);
+    }
+
+    /**
+     * Makes the context's generator visible to Hibernate for as long as the context is open.
+     */
+    @RequiredArgsConstructor
+    static class IdGeneratorInstaller implements InitializingBean, DisposableBean {
+
+        private final IdGenerator idGenerator;
+
+        @Override
+        public void afterPropertiesSet() {
+            IdGenerators.install(idGenerator);
+        }
+
+        @Override
+        public void destroy() {
+            IdGenerators.uninstall(idGenerator);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.userservice.config;
+
+import com.example.userservice.diagnostics.JfrRecorder;
+import com.example.userservice.diagnostics.JfrRecordingEndpoint;
+import com.example.userservice.diagnostics.UserOperationRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * JFR events for service operations and an on-demand recording at /actuator/jfr. Nothing is
+ * recorded until a recording is started there (or with jcmd JFR.start); until then the events
+ * cost an enabled-check per call. Kafka sends emit their events regardless of this switch.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.jfr", name = "enabled", havingValue = "true")
+public class JfrConfig {
+
+    @Bean
+    public UserOperationRecorder userOperationRecorder() {
+        return new UserOperationRecorder();
+    }
+
+    @Bean(destroyMethod = "close")
+    public JfrRecorder jfrRecorder(@Value("${app.jfr.settings:default}") String settings,
+                                   @Value("${app.jfr.max-age:PT30M}") Duration maxAge,
+                                   @Value("${app.jfr.max-size:256MB}") DataSize maxSize,
+                                   @Value("${app.jfr.event-threshold:PT0S}") Duration eventThreshold) {
+        return new JfrRecorder(settings, maxAge, maxSize.toBytes(), eventThreshold);
+    }
+
+    @Bean
+    public JfrRecordingEndpoint jfrRecordingEndpoint(JfrRecorder jfrRecorder,
+                                                     @Value("${app.jfr.summary-top:20}") int summaryTop) {
+        return new JfrRecordingEndpoint(jfrRecorder, summaryTop);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.userservice.config;
+
+import com.example.userservice.event.UserEvent;
+import com.example.userservice.service.kafka.UserProjectionStore;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableKafka
+@ConditionalOnProperty(prefix = "app.kafka.projection", name = "enabled", havingValue = "true")
+public class KafkaConsumerConfig {
+
+    @Value("${app.kafka.topic.user-events}")
+    private String userEventsTopic;
+
+    @Value("${app.kafka.projection.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Bean
+    public UserProjectionStore userProjectionStore() {
+        return new UserProjectionStore();
+    }
+
+    @Bean
+    public ConsumerFactory<String, UserEvent> userEventConsumerFactory(KafkaProperties kafkaProperties,
+                                                                       SslBundles sslBundles) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(sslBundles);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        JsonDeserializer<UserEvent> valueDeserializer = new JsonDeserializer<>(UserEvent.class);
+        valueDeserializer.setUseTypeHeaders(false);
+
+        return new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(valueDeserializer));
+    }
+
+    /**
+     * Every instance keeps a full projection, so the listener is assigned all partitions of the topic
+     * rather than sharing them with the other instances through a consumer group. Partitions added
+     * to the topic later are picked up on the next restart.
+     */
+    @Bean
+    public List<Integer> userEventPartitions(ConsumerFactory<String, UserEvent> userEventConsumerFactory) {
+        try (Consumer<String, UserEvent> consumer = userEventConsumerFactory.createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(userEventsTopic);
+            if (partitions == null || partitions.isEmpty()) {
+                throw new IllegalStateException("Topic " + userEventsTopic + " has no partitions");
+            }
+            return partitions.stream().map(PartitionInfo::partition).sorted().toList();
+        }
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> userEventBatchListenerFactory(
+            ConsumerFactory<String, UserEvent> userEventConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, UserEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(userEventConsumerFactory);
+        factory.setBatchListener(true);
+        // Positions come from the snapshot and the listener runs without a group, so nothing is committed
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAssignmentCommitOption(ContainerProperties.AssignmentCommitOption.NEVER);
+        return factory;
+    }
+}
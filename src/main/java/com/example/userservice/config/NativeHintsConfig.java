@@ -0,0 +1,51 @@
+package com.example.userservice.config;
+
+import com.example.userservice.dto.UserRequestDto;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.entity.User;
+import com.example.userservice.event.UserEvent;
+import com.example.userservice.id.DistributedIdentifierGenerator;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.List;
+
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.UserServiceRuntimeHints.class)
+public class NativeHintsConfig {
+
+    /**
+     * Reflection metadata for the native image. Jackson binds the Lombok-generated accessors of
+     * the DTOs and of {@link UserEvent} (which Kafka serializes outside of any Spring-managed
+     * binding), and the Kafka serializers are instantiated from class names in the properties.
+     * Hibernate creates the {@code @DistributedId} generator reflectively and JCache reads the
+     * cache regions from ehcache.xml (hibernate.javax.cache.uri).
+     */
+    public static class UserServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            List.of(User.class, UserRequestDto.class, UserResponseDto.class, UserEvent.class)
+                    .forEach(type -> hints.reflection().registerType(type,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS,
+                            MemberCategory.DECLARED_FIELDS));
+
+            List.of(StringSerializer.class, StringDeserializer.class, JsonSerializer.class,
+                            JsonDeserializer.class, ErrorHandlingDeserializer.class,
+                            DistributedIdentifierGenerator.class)
+                    .forEach(type -> hints.reflection().registerType(type,
+                            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+
+            hints.resources().registerPattern("ehcache.xml");
+        }
+    }
+}
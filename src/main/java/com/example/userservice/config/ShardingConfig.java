@@ -0,0 +1,121 @@
+package com.example.userservice.config;
+
+import com.example.userservice.diagnostics.ConnectionHoldTracker;
+import com.example.userservice.diagnostics.ConnectionTrackingDataSource;
+import com.example.userservice.id.IdGenerator;
+import com.example.userservice.sharding.EmailDirectory;
+import com.example.userservice.sharding.ShardRoutingAspect;
+import com.example.userservice.sharding.ShardRoutingDataSource;
+import com.example.userservice.sharding.ShardedIdGenerator;
+import com.example.userservice.sharding.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * With connection diagnostics on, each shard's pool is tracked: the primary DataSource is a lazy
+     * proxy whose connections only reach a pool at the first statement.
+     */
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties, Environment environment,
+                                                         ObjectProvider<ConnectionHoldTracker> connectionHoldTracker) {
+        List<ShardingProperties.Database> shards = properties.getShards();
+        if (shards.isEmpty() || shards.size() > ShardedIdGenerator.MAX_SHARDS) {
+            throw new IllegalStateException("app.sharding.shards must list between 1 and "
+                    + ShardedIdGenerator.MAX_SHARDS + " databases");
+        }
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            DataSource pool = createDataSource(shards.get(shard), "users-shard-" + shard, environment);
+            ConnectionHoldTracker tracker = connectionHoldTracker.getIfAvailable();
+            targets.put(shard, tracker != null ? new ConnectionTrackingDataSource(pool, tracker) : pool);
+        }
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(targets.get(0));
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.sharding.directory", name = "url")
+    public HikariDataSource emailDirectoryDataSource(ShardingProperties properties, Environment environment) {
+        return createDataSource(properties.getDirectory(), "users-email-directory", environment);
+    }
+
+    @Bean
+    public EmailDirectory emailDirectory(@Qualifier("emailDirectoryDataSource") ObjectProvider<DataSource> directoryDataSource,
+                                         ShardRoutingDataSource shardRoutingDataSource) {
+        DataSource dataSource = directoryDataSource.getIfAvailable(
+                () -> shardRoutingDataSource.getResolvedDataSources().get(0));
+        EmailDirectory emailDirectory = new EmailDirectory(new JdbcTemplate(dataSource));
+        emailDirectory.createTableIfMissing();
+        return emailDirectory;
+    }
+
+    @Bean
+    public IdGenerator idGenerator(ShardingProperties properties,
+                                   @Value("${app.id.node-id:#{null}}") Long nodeId,
+                                   @Value("${app.id.max-clock-skew-ms:1000}") long maxClockSkewMillis) {
+        return new ShardedIdGenerator(properties.getShards().size(), IdGeneratorConfig.requireNodeId(nodeId),
+                maxClockSkewMillis);
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ShardingProperties properties, EmailDirectory emailDirectory,
+                                                 PlatformTransactionManager transactionManager) {
+        return new ShardRoutingAspect(properties.getShards().size(), emailDirectory, transactionManager,
+                properties.getScatterThreads());
+    }
+
+    /**
+     * Cached query results are keyed by query and parameters only, not by shard.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer disableQueryCacheWhenSharded() {
+        return hibernateProperties -> hibernateProperties.put("hibernate.cache.use_query_cache", false);
+    }
+
+    private static HikariDataSource createDataSource(ShardingProperties.Database database, String poolName,
+                                                     Environment environment) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(database.getUrl())
+                .username(database.getUsername())
+                .password(database.getPassword())
+                .build();
+        // Same pool tuning as the single-database setup (size, timeouts, leak detection, MBeans)
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        return dataSource;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.userservice.config;
+
+import com.example.userservice.controller.UserController;
+import com.example.userservice.id.IdGenerator;
+import com.example.userservice.service.UserPurger;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.kafka.KafkaProducerService;
+import com.example.userservice.service.kafka.UserEventConsumer;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * With spring.main.lazy-initialization=true everything else is created on first use;
+     * the request path, the Kafka listener and the scheduled purger stay eager so the first
+     * request is not slowed down and the background work actually starts. The id generator is
+     * installed for Hibernate by a bean nothing depends on, so it is listed too.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerRequestPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                UserController.class,
+                UserService.class,
+                KafkaProducerService.class,
+                UserEventConsumer.class,
+                UserPurger.class,
+                IdGenerator.class,
+                IdGeneratorConfig.IdGeneratorInstaller.class
+        );
+    }
+}
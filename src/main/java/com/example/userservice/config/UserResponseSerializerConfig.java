@@ -0,0 +1,57 @@
+package com.example.userservice.config;
+
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.dto.UserResponseDtoSerializer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Configuration
+public class UserResponseSerializerConfig {
+
+    private static final List<UserResponseDto> SAMPLES = List.of(
+            new UserResponseDto(370604083934920704L, "Иван \"Иванов\"", "ivan@example.com", 25,
+                    LocalDateTime.of(2024, 1, 15, 10, 30, 5, 120_000_000)),
+            new UserResponseDto(2L, "Anna", "anna@example.com", 31, LocalDateTime.of(2024, 1, 15, 10, 30)),
+            new UserResponseDto(null, null, null, null, null));
+
+    /**
+     * The hand-written serializer hard-codes field names and date format, so spring.jackson.*
+     * settings (naming strategy, inclusion, date format) would not apply to it. It is installed in
+     * Boot's mappers (JSON, and through the same builder CBOR and Smile) only if it writes exactly
+     * what the configured bean serializer writes; otherwise the bean serializer stays in use.
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE) // after Boot's own customizer has applied spring.jackson.*
+    public Jackson2ObjectMapperBuilderCustomizer userResponseDtoSerializerCustomizer() {
+        return UserResponseSerializerConfig::registerIfEquivalent;
+    }
+
+    public static void registerIfEquivalent(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper beanMapper = builder.build();
+        ObjectMapper customMapper = beanMapper.copy()
+                .registerModule(new SimpleModule().addSerializer(UserResponseDto.class, new UserResponseDtoSerializer()));
+        try {
+            for (UserResponseDto sample : SAMPLES) {
+                if (!beanMapper.writeValueAsString(sample).equals(customMapper.writeValueAsString(sample))) {
+                    log.info("Jackson settings change the UserResponseDto output, not using UserResponseDtoSerializer");
+                    return;
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to compare UserResponseDto serializers", e);
+        }
+        builder.serializerByType(UserResponseDto.class, new UserResponseDtoSerializer());
+    }
+}
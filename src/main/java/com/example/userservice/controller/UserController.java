@@ -132,7 +132,8 @@ public class UserController {
     @GetMapping
     @Operation(
             summary = "Получить всех пользователей",
-            description = "Возвращает список всех пользователей в системе"
+            description = "Возвращает список всех пользователей в системе. " +
+                    "С параметром limit возвращает страницу по возрастанию ID, начиная после afterId"
     )
     @ApiResponse(
             responseCode = "200",
@@ -142,8 +143,22 @@ public class UserController {
                     array = @ArraySchema(schema = @Schema(implementation = UserResponseDto.class))
             )
     )
-    public ResponseEntity<List<UserResponseDto>> getAllUsers() {
-        List<UserResponseDto> users = userService.getAllUsers();
+    public ResponseEntity<List<UserResponseDto>> getAllUsers(
+            @Parameter(
+                    description = "ID последнего пользователя предыдущей страницы",
+                    example = "1"
+            )
+            @RequestParam(required = false) Long afterId,
+
+            @Parameter(
+                    description = "Размер страницы",
+                    example = "100"
+            )
+            @RequestParam(required = false) Integer limit) {
+
+        List<UserResponseDto> users = limit != null
+                ? userService.getUsersPage(afterId, limit)
+                : userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
 
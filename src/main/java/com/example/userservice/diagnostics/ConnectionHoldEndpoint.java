@@ -0,0 +1,27 @@
+package com.example.userservice.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * {@code /actuator/connections}: per-endpoint connection hold times, connections currently held
+ * longer than the threshold and the most recent leaks. DELETE clears the statistics.
+ */
+@Endpoint(id = "connections")
+@RequiredArgsConstructor
+public class ConnectionHoldEndpoint {
+
+    private final ConnectionHoldTracker tracker;
+
+    @ReadOperation
+    public ConnectionHoldTracker.Report connections() {
+        return tracker.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        tracker.reset();
+    }
+}
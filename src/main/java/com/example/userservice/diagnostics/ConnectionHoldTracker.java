@@ -0,0 +1,214 @@
+package com.example.userservice.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long connections are held, per endpoint. The request filter opens a scope on the
+ * request thread, connections taken on that thread are charged to it, and whatever is still open
+ * when the request ends is reported as a leak. Connections taken outside a request (Kafka
+ * listeners, scatter threads, startup) are charged to {@value #BACKGROUND}.
+ */
+@Slf4j
+public class ConnectionHoldTracker {
+
+    public static final String BACKGROUND = "(background)";
+    private static final int RECENT_LEAKS = 20;
+
+    private final long longHoldThresholdNanos;
+    private final ThreadLocal<RequestScope> currentRequest = new ThreadLocal<>();
+    private final AtomicLong connectionIds = new AtomicLong();
+    private final Map<Long, OpenConnection> openConnections = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Deque<LeakReport> recentLeaks = new ArrayDeque<>();
+
+    public ConnectionHoldTracker(long longHoldThresholdMillis) {
+        this.longHoldThresholdNanos = TimeUnit.MILLISECONDS.toNanos(longHoldThresholdMillis);
+    }
+
+    public void beginRequest(String description) {
+        currentRequest.set(new RequestScope(description));
+    }
+
+    public void endRequest(String endpoint) {
+        RequestScope request = currentRequest.get();
+        currentRequest.remove();
+        if (request == null) {
+            return;
+        }
+        EndpointStats stats = stats(endpoint);
+        stats.requests.increment();
+        stats.maxRequestHoldNanos.accumulate(request.totalHoldNanos.get());
+        request.endpoint = endpoint;
+        request.holds.forEach(hold -> stats.record(hold, longHoldThresholdNanos));
+
+        for (OpenConnection connection : openConnections.values()) {
+            if (connection.request == request) {
+                stats.leaks.increment();
+                LeakReport leak = new LeakReport(endpoint, request.description, connection.thread,
+                        millis(System.nanoTime() - connection.acquiredNanos), connection.acquiredAt());
+                synchronized (recentLeaks) {
+                    if (recentLeaks.size() == RECENT_LEAKS) {
+                        recentLeaks.removeFirst();
+                    }
+                    recentLeaks.addLast(leak);
+                }
+                log.warn("Connection taken during {} was not returned by the end of the request, acquired at {}",
+                        request.description, leak.acquiredAt());
+            }
+        }
+    }
+
+    long acquired() {
+        long id = connectionIds.incrementAndGet();
+        openConnections.put(id, new OpenConnection(currentRequest.get(), Thread.currentThread().getName(),
+                System.nanoTime(), new Throwable().getStackTrace()));
+        return id;
+    }
+
+    void released(long id) {
+        OpenConnection connection = openConnections.remove(id);
+        if (connection == null) {
+            return;
+        }
+        long holdNanos = System.nanoTime() - connection.acquiredNanos;
+        RequestScope request = connection.request;
+        if (holdNanos > longHoldThresholdNanos) {
+            log.warn("Connection held for {} ms by {} on {}, acquired at {}", TimeUnit.NANOSECONDS.toMillis(holdNanos),
+                    request != null ? request.description : BACKGROUND, connection.thread, connection.acquiredAt());
+        }
+        if (request == null) {
+            stats(BACKGROUND).record(holdNanos, longHoldThresholdNanos);
+            return;
+        }
+        request.totalHoldNanos.addAndGet(holdNanos);
+        if (request.endpoint != null) {
+            // Returned after the request ended: already counted as a leak, record the hold as well
+            stats(request.endpoint).record(holdNanos, longHoldThresholdNanos);
+        } else {
+            request.holds.add(holdNanos);
+        }
+    }
+
+    public Report report() {
+        List<EndpointReport> endpointReports = endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().report(entry.getKey()))
+                .sorted(Comparator.comparingDouble(EndpointReport::totalHoldMillis).reversed())
+                .toList();
+
+        long now = System.nanoTime();
+        List<OpenConnectionReport> longHolders = openConnections.values().stream()
+                .filter(connection -> now - connection.acquiredNanos > longHoldThresholdNanos)
+                .sorted(Comparator.comparingLong(OpenConnection::acquiredNanos))
+                .map(connection -> new OpenConnectionReport(
+                        connection.request != null ? connection.request.description : BACKGROUND,
+                        connection.thread, millis(now - connection.acquiredNanos), connection.acquiredAt()))
+                .toList();
+
+        List<LeakReport> leaks;
+        synchronized (recentLeaks) {
+            leaks = new ArrayList<>(recentLeaks);
+        }
+        return new Report(millis(longHoldThresholdNanos), openConnections.size(), endpointReports, longHolders, leaks);
+    }
+
+    public void reset() {
+        endpoints.clear();
+        synchronized (recentLeaks) {
+            recentLeaks.clear();
+        }
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class RequestScope {
+        private final String description;
+        private final Queue<Long> holds = new ConcurrentLinkedQueue<>();
+        private final AtomicLong totalHoldNanos = new AtomicLong();
+        private volatile String endpoint;
+
+        RequestScope(String description) {
+            this.description = description;
+        }
+    }
+
+    private record OpenConnection(RequestScope request, String thread, long acquiredNanos,
+                                  StackTraceElement[] stackTrace) {
+
+        /** Application frames that led to the connection being taken, innermost first. */
+        String acquiredAt() {
+            return Arrays.stream(stackTrace)
+                    .filter(frame -> frame.getClassName().startsWith("com.example.userservice")
+                            && !frame.getClassName().startsWith("com.example.userservice.diagnostics")
+                            && !frame.getClassName().contains("$$"))
+                    .limit(5)
+                    .map(StackTraceElement::toString)
+                    .reduce((inner, outer) -> inner + " <- " + outer)
+                    .orElse("(framework code)");
+        }
+    }
+
+    private static class EndpointStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder connections = new LongAdder();
+        private final LongAdder totalHoldNanos = new LongAdder();
+        private final LongAccumulator maxHoldNanos = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator maxRequestHoldNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder longHolds = new LongAdder();
+        private final LongAdder leaks = new LongAdder();
+
+        void record(long holdNanos, long longHoldThresholdNanos) {
+            connections.increment();
+            totalHoldNanos.add(holdNanos);
+            maxHoldNanos.accumulate(holdNanos);
+            if (holdNanos > longHoldThresholdNanos) {
+                longHolds.increment();
+            }
+        }
+
+        EndpointReport report(String endpoint) {
+            long requestCount = requests.sum();
+            long connectionCount = connections.sum();
+            long total = totalHoldNanos.sum();
+            return new EndpointReport(endpoint, requestCount, connectionCount, millis(total),
+                    connectionCount == 0 ? 0 : millis(total / connectionCount),
+                    requestCount == 0 ? 0 : millis(total / requestCount),
+                    millis(maxHoldNanos.get()), millis(maxRequestHoldNanos.get()), longHolds.sum(), leaks.sum());
+        }
+    }
+
+    public record Report(double longHoldThresholdMillis, int openConnections, List<EndpointReport> endpoints,
+                         List<OpenConnectionReport> longHolders, List<LeakReport> recentLeaks) {
+    }
+
+    public record EndpointReport(String endpoint, long requests, long connections, double totalHoldMillis,
+                                 double meanHoldMillis, double meanHoldPerRequestMillis, double maxHoldMillis,
+                                 double maxHoldPerRequestMillis, long longHolds, long leaks) {
+    }
+
+    public record OpenConnectionReport(String heldBy, String thread, double heldMillis, String acquiredAt) {
+    }
+
+    public record LeakReport(String endpoint, String request, String thread, double heldMillis, String acquiredAt) {
+    }
+}
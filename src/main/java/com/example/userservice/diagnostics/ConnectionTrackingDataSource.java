@@ -0,0 +1,55 @@
+package com.example.userservice.diagnostics;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Reports every connection handed out by the target DataSource, and its close, to a
+ * {@link ConnectionHoldTracker}.
+ */
+public class ConnectionTrackingDataSource extends DelegatingDataSource {
+
+    private final ConnectionHoldTracker tracker;
+
+    public ConnectionTrackingDataSource(DataSource targetDataSource, ConnectionHoldTracker tracker) {
+        super(targetDataSource);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        long id = tracker.acquired();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> connection;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Tracked connection [" + connection + "]";
+                    default -> {
+                        if (method.getName().equals("close")) {
+                            tracker.released(id);
+                        }
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+}
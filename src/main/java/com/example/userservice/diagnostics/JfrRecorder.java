@@ -0,0 +1,129 @@
+package com.example.userservice.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The on-demand JFR recording behind /actuator/jfr. There is at most one: starting a new one
+ * discards the previous recording, and a stopped recording stays available for download and
+ * summary until then. The JDK settings named by {@code settings} are used, with the service's
+ * own events enabled above {@code eventThreshold} and the events that would capture the
+ * environment, system properties or command lines disabled.
+ */
+@Slf4j
+public class JfrRecorder {
+
+    /** Environment variables, system properties and JVM/process command lines. */
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation", "jdk.ProcessStart");
+
+    private final String settings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Duration eventThreshold;
+
+    private Recording recording;
+
+    public JfrRecorder(String settings, Duration maxAge, long maxSizeBytes, Duration eventThreshold) {
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeBytes;
+        this.eventThreshold = eventThreshold;
+    }
+
+    /**
+     * Starts a recording unless one is already running.
+     *
+     * @param duration stop automatically after this long, or null to record until stopped
+     */
+    public synchronized Status start(Duration duration) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        close();
+        Recording started = new Recording(Configuration.getConfiguration(settings));
+        started.setName("user-service");
+        started.enable(UserOperationEvent.class).withThreshold(eventThreshold);
+        started.enable(KafkaSendEvent.class).withThreshold(eventThreshold);
+        // Would put secrets passed through the environment or -D (e.g. the datasource password) in the file
+        SENSITIVE_EVENTS.forEach(started::disable);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSizeBytes);
+        if (duration != null) {
+            started.setDuration(duration);
+        }
+        started.start();
+        recording = started;
+        log.info("Started JFR recording with '{}' settings{}", settings, duration != null ? " for " + duration : "");
+        return status();
+    }
+
+    public synchronized Status stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording after {}", Duration.between(recording.getStartTime(), recording.getStopTime()));
+        }
+        return status();
+    }
+
+    public synchronized Status status() {
+        if (recording == null) {
+            return new Status("NONE", settings, null, null, 0);
+        }
+        return new Status(recording.getState().name(), settings, recording.getStartTime(), recording.getStopTime(),
+                recording.getSize());
+    }
+
+    /**
+     * Writes what the current or last recording holds so far to a new temporary file, which the
+     * caller must delete.
+     *
+     * @return the file, or null if nothing has been recorded
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            return null;
+        }
+        Path file = Files.createTempFile("user-service-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    public SlowOperationsReport summary(int top) throws IOException {
+        Path file = dump();
+        if (file == null) {
+            return null;
+        }
+        try {
+            return SlowOperationsReport.read(file, top);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public record Status(String state, String settings, Instant startTime, Instant stopTime, long sizeBytes) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.userservice.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * {@code /actuator/jfr}: POST starts a recording (optionally for a fixed {@code duration}), DELETE
+ * stops it, GET shows its state with the slowest service operations and Kafka sends seen so far,
+ * and GET /actuator/jfr/recording.jfr downloads it for JDK Mission Control.
+ */
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrRecordingEndpoint {
+
+    public static final String FILE_NAME = "recording.jfr";
+
+    private final JfrRecorder recorder;
+    private final int summaryTop;
+
+    @WriteOperation
+    public JfrRecorder.Status start(@Nullable Duration duration) throws IOException, ParseException {
+        return recorder.start(duration);
+    }
+
+    @DeleteOperation
+    public JfrRecorder.Status stop() {
+        return recorder.stop();
+    }
+
+    @ReadOperation
+    public Summary summary(@Nullable Integer top) throws IOException {
+        return new Summary(recorder.status(), recorder.summary(top != null ? top : summaryTop));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String file) throws IOException {
+        Path dump = FILE_NAME.equals(file) ? recorder.dump() : null;
+        if (dump == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(dump), WebEndpointResponse.STATUS_OK);
+    }
+
+    public record Summary(JfrRecorder.Status recording, SlowOperationsReport report) {
+    }
+
+    /** The dump is written per download and removed once it has been streamed. */
+    private static class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
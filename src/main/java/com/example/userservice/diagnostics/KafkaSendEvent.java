@@ -0,0 +1,63 @@
+package com.example.userservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One user event sent to Kafka, from the {@code send} call until the broker acknowledged it (or
+ * the send failed). It is committed on the producer's callback thread.
+ */
+@Name(KafkaSendEvent.NAME)
+@Label("Kafka Send")
+@Category("User Service")
+@Description("A user event sent to Kafka, until acknowledged")
+@StackTrace(false)
+public class KafkaSendEvent extends Event {
+
+    public static final String NAME = "com.example.userservice.KafkaSend";
+
+    @Label("Topic")
+    private String topic;
+
+    @Label("Event Type")
+    private String eventType;
+
+    @Label("User Id")
+    private long userId;
+
+    @Label("Partition")
+    private int partition = -1;
+
+    @Label("Success")
+    private boolean success;
+
+    @Label("Error")
+    private String error;
+
+    /** Starts timing a send; cheap to call when no recording has the event enabled. */
+    public static KafkaSendEvent begin(String topic, String eventType, Long userId) {
+        KafkaSendEvent event = new KafkaSendEvent();
+        if (event.isEnabled()) {
+            event.topic = topic;
+            event.eventType = eventType;
+            event.userId = userId != null ? userId : 0;
+            event.begin();
+        }
+        return event;
+    }
+
+    public void acknowledged(int partition) {
+        this.partition = partition;
+        this.success = true;
+        commit();
+    }
+
+    public void failed(Throwable error) {
+        this.error = error.toString();
+        commit();
+    }
+}
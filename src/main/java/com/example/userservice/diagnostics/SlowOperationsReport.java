@@ -0,0 +1,101 @@
+package com.example.userservice.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Service operations and Kafka sends found in a JFR recording: per operation count, mean, p99 and
+ * max latency (ordered by total time spent), and the slowest individual calls. The recording is
+ * streamed: memory is one histogram per operation plus the {@code top} slowest calls, however
+ * many events the recording holds.
+ */
+public record SlowOperationsReport(List<OperationStats> operations, List<SlowOperation> slowest) {
+
+    public static SlowOperationsReport read(Path recording, int top) throws IOException {
+        Map<String, OperationHistogram> histograms = new HashMap<>();
+        PriorityQueue<SlowOperation> slowest = new PriorityQueue<>(Comparator.comparingDouble(SlowOperation::durationMillis));
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String operation = operation(event);
+                if (operation == null) {
+                    continue;
+                }
+                long durationNanos = event.getDuration().toNanos();
+                histograms.computeIfAbsent(operation, key -> new OperationHistogram()).record(durationNanos);
+                if (slowest.size() < top || millis(durationNanos) > slowest.peek().durationMillis()) {
+                    slowest.add(slowOperation(operation, event));
+                    if (slowest.size() > top) {
+                        slowest.poll();
+                    }
+                }
+            }
+        }
+
+        List<OperationStats> operations = histograms.entrySet().stream()
+                .map(entry -> entry.getValue().stats(entry.getKey()))
+                .sorted(Comparator.comparingDouble(OperationStats::totalMillis).reversed())
+                .toList();
+        return new SlowOperationsReport(operations, slowest.stream()
+                .sorted(Comparator.comparingDouble(SlowOperation::durationMillis).reversed())
+                .toList());
+    }
+
+    private static String operation(RecordedEvent event) {
+        String type = event.getEventType().getName();
+        if (type.equals(UserOperationEvent.NAME)) {
+            return event.getString("operation");
+        }
+        if (type.equals(KafkaSendEvent.NAME)) {
+            return "kafka " + event.getString("eventType");
+        }
+        return null;
+    }
+
+    private static SlowOperation slowOperation(String operation, RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        return new SlowOperation(operation, event.getLong("userId"), millis(event.getDuration().toNanos()),
+                event.getStartTime(), thread != null ? thread.getJavaName() : null,
+                event.getBoolean("success"), event.getString("error"));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /** Durations in microseconds, 3 significant digits; the total is kept exactly. */
+    private static class OperationHistogram {
+        private final Histogram histogram = new Histogram(3);
+        private long totalNanos;
+
+        void record(long durationNanos) {
+            histogram.recordValue(Math.max(0, durationNanos / 1_000));
+            totalNanos += durationNanos;
+        }
+
+        OperationStats stats(String operation) {
+            long count = histogram.getTotalCount();
+            return new OperationStats(operation, count, millis(totalNanos), millis(totalNanos / count),
+                    histogram.getValueAtPercentile(99) / 1_000.0, histogram.getMaxValue() / 1_000.0);
+        }
+    }
+
+    public record OperationStats(String operation, long count, double totalMillis, double meanMillis,
+                                 double p99Millis, double maxMillis) {
+    }
+
+    public record SlowOperation(String operation, long userId, double durationMillis, Instant startTime,
+                                String thread, boolean success, String error) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.userservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call into {@code UserService}, from entry to return. The event duration is the operation's
+ * latency; {@code userId} is 0 for list operations, which report the number of rows instead.
+ */
+@Name(UserOperationEvent.NAME)
+@Label("User Operation")
+@Category("User Service")
+@Description("A UserService call and its outcome")
+@StackTrace(false)
+public class UserOperationEvent extends Event {
+
+    public static final String NAME = "com.example.userservice.UserOperation";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,45 @@
+package com.example.userservice.diagnostics;
+
+import com.example.userservice.dto.UserResponseDto;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.util.Collection;
+
+/**
+ * Emits a {@link UserOperationEvent} around every {@code UserService} call. When no recording
+ * has the event enabled the call goes straight through.
+ */
+@Aspect
+public class UserOperationRecorder {
+
+    @Around("execution(* com.example.userservice.service.UserService.*(..))")
+    public Object record(ProceedingJoinPoint jp) throws Throwable {
+        UserOperationEvent event = new UserOperationEvent();
+        if (!event.isEnabled()) {
+            return jp.proceed();
+        }
+        event.operation = jp.getSignature().getName();
+        Object[] args = jp.getArgs();
+        if (args.length > 0 && args[0] instanceof Long id && !event.operation.equals("getUsersPage")) {
+            event.userId = id;
+        }
+        event.begin();
+        try {
+            Object result = jp.proceed();
+            if (result instanceof UserResponseDto user && user.getId() != null) {
+                event.userId = user.getId();
+            } else if (result instanceof Collection<?> rows) {
+                event.rows = rows.size();
+            }
+            event.success = true;
+            return result;
+        } catch (Throwable e) {
+            event.error = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.userservice.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,10 +16,12 @@ import java.time.LocalDateTime;
 public class UserResponseDto {
 
     @Schema(
-            description = "Уникальный идентификатор пользователя",
-            example = "1",
+            description = "Уникальный идентификатор пользователя (строкой: значения больше 2^53)",
+            type = "string",
+            example = "370604083934920704",
             requiredMode = Schema.RequiredMode.REQUIRED
     )
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
 
     @Schema(
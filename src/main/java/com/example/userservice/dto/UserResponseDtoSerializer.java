@@ -0,0 +1,108 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes {@link UserResponseDto} field by field instead of going through the reflective bean
+ * serializer. Field names are pre-encoded and {@code createdAt} is formatted into a small char
+ * buffer, producing the same ISO-8601 text as Jackson's default LocalDateTime serializer.
+ * Registered by UserResponseSerializerConfig only where it writes what the bean serializer would.
+ */
+public class UserResponseDtoSerializer extends StdSerializer<UserResponseDto> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+
+    public UserResponseDtoSerializer() {
+        super(UserResponseDto.class);
+    }
+
+    @Override
+    public void serialize(UserResponseDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+
+        gen.writeFieldName(ID);
+        if (value.getId() != null) {
+            // As a string, like the DTO's @JsonSerialize: ids exceed what a JavaScript number holds exactly
+            gen.writeString(Long.toString(value.getId()));
+        } else {
+            gen.writeNull();
+        }
+
+        gen.writeFieldName(NAME);
+        gen.writeString(value.getName());
+
+        gen.writeFieldName(EMAIL);
+        gen.writeString(value.getEmail());
+
+        gen.writeFieldName(AGE);
+        if (value.getAge() != null) {
+            gen.writeNumber(value.getAge());
+        } else {
+            gen.writeNull();
+        }
+
+        gen.writeFieldName(CREATED_AT);
+        writeDateTime(value.getCreatedAt(), gen);
+
+        gen.writeEndObject();
+    }
+
+    private static void writeDateTime(LocalDateTime dateTime, JsonGenerator gen) throws IOException {
+        if (dateTime == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return;
+        }
+
+        char[] buf = new char[29];
+        writeDigits(buf, 0, year, 4);
+        buf[4] = '-';
+        writeDigits(buf, 5, dateTime.getMonthValue(), 2);
+        buf[7] = '-';
+        writeDigits(buf, 8, dateTime.getDayOfMonth(), 2);
+        buf[10] = 'T';
+        writeDigits(buf, 11, dateTime.getHour(), 2);
+        buf[13] = ':';
+        writeDigits(buf, 14, dateTime.getMinute(), 2);
+        buf[16] = ':';
+        writeDigits(buf, 17, dateTime.getSecond(), 2);
+        int len = 19;
+
+        int nano = dateTime.getNano();
+        if (nano > 0) {
+            // Same as ISO_LOCAL_DATE_TIME: only as many fraction digits as needed
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buf[len++] = '.';
+            writeDigits(buf, len, nano, digits);
+            len += digits;
+        }
+        gen.writeString(buf, 0, len);
+    }
+
+    private static void writeDigits(char[] buf, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -1,30 +1,43 @@
 package com.example.userservice.entity;
 
+import com.example.userservice.id.DistributedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.ResultCheckStyle;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.SQLUpdate;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users", uniqueConstraints = {
-        @UniqueConstraint(name = "uk_user_email", columnNames = "email")
-})
+// Emails are unique among live users only (ux_users_email_live, see db/users-soft-delete.sql),
+// so a deleted user's email can be registered again right away
+@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@SQLRestriction("deleted_at is null")
+// Only live rows are updated: a write from a transaction that loaded the user before it was deleted
+// fails (0 rows) instead of clearing deleted_at again. Columns in Hibernate's own order.
+@SQLUpdate(sql = "update users set age = ?, deleted_at = ?, email = ?, name = ? where id = ? and deleted_at is null",
+        check = ResultCheckStyle.COUNT)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @DistributedId
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -33,4 +46,8 @@ public class User {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    // Set on delete; the row is removed later by UserPurger
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
 }
\ No newline at end of file
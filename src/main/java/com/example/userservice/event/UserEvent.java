@@ -15,7 +15,7 @@ public class UserEvent {
 
     @Schema(
             description = "Тип события",
-            example = "USER_CREATED или USER_DELETED",
+            example = "USER_CREATED, USER_UPDATED, USER_DELETED или USER_PURGED",
             requiredMode = Schema.RequiredMode.REQUIRED
     )
     private String eventType;
@@ -58,6 +58,16 @@ public class UserEvent {
         );
     }
 
+    public static UserEvent createUserUpdatedEvent(Long userId, String userEmail, String userName) {
+        return new UserEvent(
+                "USER_UPDATED",
+                userId,
+                userEmail,
+                userName,
+                LocalDateTime.now()
+        );
+    }
+
     public static UserEvent createUserDeletedEvent(Long userId, String userEmail, String userName) {
         return new UserEvent(
                 "USER_DELETED",
@@ -67,4 +77,15 @@ public class UserEvent {
                 LocalDateTime.now()
         );
     }
+
+    // Tombstone: the user's row is gone for good, only the id is known
+    public static UserEvent createUserPurgedEvent(Long userId) {
+        return new UserEvent(
+                "USER_PURGED",
+                userId,
+                null,
+                null,
+                LocalDateTime.now()
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.userservice.exception;
+
+public class UpdateOutcomeUnknownException extends RuntimeException {
+    public UpdateOutcomeUnknownException(String message) {
+        super(message);
+    }
+}
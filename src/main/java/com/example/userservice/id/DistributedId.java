@@ -0,0 +1,18 @@
+package com.example.userservice.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns the identifier from the installed {@link IdGenerator} in memory, without a database
+ * round-trip, instead of {@code GenerationType.IDENTITY}.
+ */
+@IdGeneratorType(DistributedIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface DistributedId {
+}
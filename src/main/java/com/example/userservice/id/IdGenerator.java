@@ -0,0 +1,8 @@
+package com.example.userservice.id;
+
+/**
+ * Source of entity identifiers, see {@link DistributedId}.
+ */
+public interface IdGenerator {
+    long nextId();
+}
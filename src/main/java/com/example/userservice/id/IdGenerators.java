@@ -0,0 +1,40 @@
+package com.example.userservice.id;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Holds the generator used by {@link DistributedIdentifierGenerator}. Hibernate instantiates
+ * identifier generators itself, so the Spring-configured generator is installed here at startup.
+ * Generating an id with none installed is a configuration error and fails.
+ * <p>
+ * Installs nest: when several application contexts are open (as in cached test contexts), the
+ * most recently installed generator is used, and closing a context goes back to the one before.
+ */
+public final class IdGenerators {
+
+    private static final Deque<IdGenerator> installed = new ArrayDeque<>();
+    private static volatile IdGenerator current;
+
+    private IdGenerators() {
+    }
+
+    public static synchronized void install(IdGenerator generator) {
+        installed.push(generator);
+        current = generator;
+    }
+
+    public static synchronized void uninstall(IdGenerator generator) {
+        installed.remove(generator);
+        current = installed.peek();
+    }
+
+    public static IdGenerator current() {
+        IdGenerator generator = current;
+        if (generator == null) {
+            throw new IllegalStateException("No IdGenerator installed; ids are only generated inside an application "
+                    + "context with an IdGenerator bean (see IdGeneratorConfig)");
+        }
+        return generator;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.userservice.id;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since {@link #EPOCH_MILLIS},
+ * 10 bits of node id and a 12-bit sequence within the millisecond.
+ * <p>
+ * Lock-free: the last issued timestamp and sequence are packed into one {@link AtomicLong} and
+ * advanced with compare-and-set. When the sequence of a millisecond is exhausted, or the clock
+ * steps back, ids continue from the last state (borrowing milliseconds ahead of the clock), so
+ * they stay unique and increasing. The lead over the wall clock is bounded by
+ * {@code maxClockSkewMillis}: callers spin once it is reached by exhaustion, and a clock that
+ * jumps back further than that is rejected.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    public static final long DEFAULT_MAX_CLOCK_SKEW_MILLIS = 1000;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int NODE_SHIFT = SEQUENCE_BITS;
+    public static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    private final Clock clock;
+    private final long maxClockSkewMillis;
+
+    /** Last issued (timestamp - epoch) << SEQUENCE_BITS | sequence. */
+    private final AtomicLong state = new AtomicLong(-1L);
+
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, Clock.systemUTC(), DEFAULT_MAX_CLOCK_SKEW_MILLIS);
+    }
+
+    public SnowflakeIdGenerator(long nodeId, Clock clock, long maxClockSkewMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        if (maxClockSkewMillis < 1) {
+            throw new IllegalArgumentException("Max clock skew must be at least 1 ms: " + maxClockSkewMillis);
+        }
+        this.nodeBits = nodeId << NODE_SHIFT;
+        this.clock = clock;
+        this.maxClockSkewMillis = maxClockSkewMillis;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long now = clock.millis() - EPOCH_MILLIS;
+            long last = state.get();
+            long lastTimestamp = last >> SEQUENCE_BITS;
+
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                if (lastTimestamp - now > maxClockSkewMillis) {
+                    throw new IllegalStateException("Clock moved backwards by " + (lastTimestamp - now)
+                            + " ms, more than the tolerated " + maxClockSkewMillis + " ms");
+                }
+                // Same millisecond, or the clock is behind: an exhausted sequence carries into the timestamp
+                next = last + 1;
+                if ((next >> SEQUENCE_BITS) - now > maxClockSkewMillis) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+            }
+
+            if (state.compareAndSet(last, next)) {
+                return ((next >> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static long nodeIdOf(long id) {
+        return (id >>> NODE_SHIFT) & MAX_NODE_ID;
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+}
@@ -1,12 +1,37 @@
 package com.example.userservice.repository;
 
+import com.example.userservice.dto.UserResponseDto;
 import com.example.userservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    // Read-only list path: builds the DTOs straight from the result set, no managed entities.
+    // Not cached: a cached copy of the whole table would be rebuilt after every write to users
+    @Transactional(readOnly = true)
+    @Query("select new com.example.userservice.dto.UserResponseDto(u.id, u.name, u.email, u.age, u.createdAt) " +
+            "from User u order by u.id")
+    List<UserResponseDto> findAllAsResponseDto();
+
+    // Keyset page: users with an id greater than afterId, in id order. Cached per afterId and limit,
+    // so an entry holds at most one page
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "users-list")
+    })
+    @Transactional(readOnly = true)
+    @Query("select new com.example.userservice.dto.UserResponseDto(u.id, u.name, u.email, u.age, u.createdAt) " +
+            "from User u where u.id > :afterId order by u.id")
+    List<UserResponseDto> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+}
@@ -0,0 +1,30 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    Optional<User> findByEmail(String email);
+
+    /**
+     * Loads a live user from the database, bypassing the second-level cache, and locks its row
+     * until the surrounding transaction ends.
+     */
+    Optional<User> findByIdForUpdate(Long id);
+
+    /**
+     * Loads and locks the live users among {@code ids}, like {@link #findByIdForUpdate(Long)}.
+     */
+    List<User> findAllByIdForUpdate(Collection<Long> ids);
+
+    /**
+     * Removes up to {@code limit} users soft-deleted before {@code cutoff}, in one transaction.
+     *
+     * @return ids of the rows actually removed
+     */
+    List<Long> purgeDeletedBefore(LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,89 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.AvailableHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A query rather than a natural-id load: natural-id resolution ignores @SQLRestriction and would
+    // find the deleted row once its email has been taken by a new user. Cached in users-by-email,
+    // results are ids resolved through the users entity cache.
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.createQuery("select u from User u where u.email = :email", User.class)
+                .setParameter("email", email)
+                .setHint(AvailableHints.HINT_CACHEABLE, true)
+                .setHint(AvailableHints.HINT_CACHE_REGION, "users-by-email")
+                .getResultList()  // not getResultStream(): scrolling bypasses the query cache
+                .stream()
+                .findFirst();
+    }
+
+    // A locking load always reads the row, so a user soft-deleted by a committed transaction is not
+    // found even if the cache still has it; a delete still in flight is waited for
+    @Override
+    @Transactional
+    public Optional<User> findByIdForUpdate(Long id) {
+        return Optional.ofNullable(entityManager.find(User.class, id, LockModeType.PESSIMISTIC_WRITE))
+                .filter(user -> user.getDeletedAt() == null);
+    }
+
+    // In id order, so concurrent batches take their row locks in the same order
+    @Override
+    @Transactional
+    public List<User> findAllByIdForUpdate(Collection<Long> ids) {
+        return entityManager.createQuery("select u from User u where u.id in :ids order by u.id", User.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    // Native: the entity's deleted_at restriction hides these rows. The candidates are locked and
+    // rows locked by another instance's purge are skipped, so concurrent purgers never share a row.
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public List<Long> purgeDeletedBefore(LocalDateTime cutoff, int limit) {
+        List<Long> ids = ((List<Number>) entityManager.createNativeQuery(
+                        "select id from users where deleted_at < :cutoff order by id limit :limit for update skip locked")
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .getResultList())
+                .stream()
+                .map(Number::longValue)
+                .toList();
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        int deleted = entityManager.createNativeQuery("delete from users where id in (:ids) and deleted_at is not null")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(User.class)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        if (deleted == ids.size()) {
+            return ids;
+        }
+        List<Long> remaining = ((List<Number>) entityManager.createNativeQuery("select id from users where id in (:ids)")
+                .setParameter("ids", ids)
+                .getResultList())
+                .stream()
+                .map(Number::longValue)
+                .toList();
+        return ids.stream().filter(id -> !remaining.contains(id)).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.userservice.service;
+
+import com.example.userservice.event.UserEvent;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.kafka.KafkaProducerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Physically removes soft-deleted users once their retention has passed. Works in chunks of
+ * {@code chunk-size} ids, each deleted in its own short transaction, pauses between chunks so it
+ * never competes with request traffic for long, and sends a USER_PURGED tombstone per removed id.
+ * Runs on every instance: each chunk locks its rows and skips rows locked by another instance, so
+ * purgers never remove (and announce) the same user twice.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.users.purge", name = "enabled", havingValue = "true")
+public class UserPurger {
+
+    private final UserRepository userRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final Counter purgedCounter;
+
+    @Value("${app.users.purge.retention:PT24H}")
+    private Duration retention;
+
+    @Value("${app.users.purge.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.users.purge.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+
+    @Value("${app.users.purge.pause-between-chunks-ms:200}")
+    private long pauseBetweenChunksMs;
+
+    public UserPurger(UserRepository userRepository, KafkaProducerService kafkaProducerService,
+                      MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.purgedCounter = Counter.builder("users.purged")
+                .description("Soft-deleted users removed by the purger")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.users.purge.interval-ms:300000}",
+            fixedDelayString = "${app.users.purge.interval-ms:300000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int purged = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            // Committed when this returns; with sharding every shard purges up to a chunk
+            List<Long> ids = userRepository.purgeDeletedBefore(cutoff, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            ids.forEach(id -> kafkaProducerService.sendUserEvent(UserEvent.createUserPurgedEvent(id)));
+            purged += ids.size();
+            purgedCounter.increment(ids.size());
+
+            if (!pause()) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} users deleted before {}", purged, cutoff);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenChunksMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
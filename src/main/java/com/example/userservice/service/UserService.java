@@ -9,6 +9,7 @@ public interface UserService {
     UserResponseDto createUser(UserRequestDto userRequestDto);
     UserResponseDto getUserById(Long id);
     List<UserResponseDto> getAllUsers();
+    List<UserResponseDto> getUsersPage(Long afterId, int limit);
     UserResponseDto updateUser(Long id, UserRequestDto userRequestDto);
     void deleteUser(Long id);
 }
\ No newline at end of file
@@ -10,21 +10,28 @@ import com.example.userservice.repository.UserRepository;
 import com.example.userservice.service.kafka.KafkaProducerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Transactions cover only the repository work: a connection is taken after validation and given
+ * back before the Kafka event is sent, so a slow broker never holds the pool.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<UserUpdateCoalescer> updateCoalescer;
 
     @Override
     public UserResponseDto createUser(UserRequestDto userRequestDto) {
@@ -34,7 +41,7 @@ public class UserServiceImpl implements UserService {
             user.setEmail(userRequestDto.getEmail());
             user.setAge(userRequestDto.getAge());
 
-            User savedUser = userRepository.save(user);
+            User savedUser = transactionTemplate.execute(status -> userRepository.saveAndFlush(user));
 
             UserEvent event = UserEvent.createUserCreatedEvent(
                     savedUser.getId(),
@@ -56,24 +63,43 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserResponseDto updateUser(Long id, UserRequestDto userRequestDto) {
-        try {
-            User user = userRepository.findById(id)
-                    .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-
-            String oldEmail = user.getEmail();
-
-            user.setName(userRequestDto.getName());
-            user.setEmail(userRequestDto.getEmail());
-            user.setAge(userRequestDto.getAge());
-
-            User updatedUser = userRepository.save(user);
-            if (!oldEmail.equals(userRequestDto.getEmail())) {
-                log.info("Email updated for user {}: {} -> {}",
-                        id, oldEmail, userRequestDto.getEmail());
+        UserUpdateCoalescer coalescer = updateCoalescer.getIfAvailable();
+        if (coalescer != null) {
+            UserResponseDto coalesced = coalescer.update(id, userRequestDto);
+            if (coalesced != null) {
+                return coalesced;
             }
+        }
+
+        try {
+            User updatedUser = transactionTemplate.execute(status -> {
+                User user = findActiveUserForUpdate(id);
+
+                String oldEmail = user.getEmail();
+
+                user.setName(userRequestDto.getName());
+                user.setEmail(userRequestDto.getEmail());
+                user.setAge(userRequestDto.getAge());
+
+                User savedUser = userRepository.saveAndFlush(user);
+                if (!oldEmail.equals(userRequestDto.getEmail())) {
+                    log.info("Email updated for user {}: {} -> {}",
+                            id, oldEmail, userRequestDto.getEmail());
+                }
+                return savedUser;
+            });
+
+            UserEvent event = UserEvent.createUserUpdatedEvent(
+                    updatedUser.getId(),
+                    updatedUser.getEmail(),
+                    updatedUser.getName()
+            );
+            kafkaProducerService.sendUserEvent(event);
 
             return convertToResponseDto(updatedUser);
 
+        } catch (UserNotFoundException e) {
+            throw e;
         } catch (DataIntegrityViolationException e) {
             log.warn("Attempt to update user with existing email: {}", userRequestDto.getEmail(), e);
             throw new EmailAlreadyExistsException(userRequestDto.getEmail(), e);
@@ -85,31 +111,47 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-        String userEmail = user.getEmail();
-        String userName = user.getName();
-
-        userRepository.deleteById(id);
-        UserEvent event = UserEvent.createUserDeletedEvent(id, userEmail, userName);
+        // Soft delete: a single update now, the row itself is removed later by UserPurger
+        UserEvent event = transactionTemplate.execute(status -> {
+            User user = findActiveUserForUpdate(id);
+            user.setDeletedAt(LocalDateTime.now());
+            userRepository.save(user);
+            return UserEvent.createUserDeletedEvent(id, user.getEmail(), user.getName());
+        });
         kafkaProducerService.sendUserEvent(event);
     }
 
+    // Reads rely on the repository's own read-only transactions, one per query
+
     @Override
-    @Transactional(readOnly = true)
     public UserResponseDto getUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-        return convertToResponseDto(user);
+        return convertToResponseDto(findActiveUser(id));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<UserResponseDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+        return userRepository.findAllAsResponseDto();
+    }
+
+    @Override
+    public List<UserResponseDto> getUsersPage(Long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        return userRepository.findPageAfter(afterId != null ? afterId : Long.MIN_VALUE, Limit.of(limit));
+    }
+
+    // Loads by id may come from the second-level cache, which also holds soft-deleted users
+    private User findActiveUser(Long id) {
+        return userRepository.findById(id)
+                .filter(user -> user.getDeletedAt() == null)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+    }
+
+    // Write paths lock the row, so an update and a delete of the same user never interleave
+    private User findActiveUserForUpdate(Long id) {
+        return userRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
     }
 
     private UserResponseDto convertToResponseDto(User user) {
@@ -0,0 +1,328 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserRequestDto;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.entity.User;
+import com.example.userservice.event.UserEvent;
+import com.example.userservice.exception.EmailAlreadyExistsException;
+import com.example.userservice.exception.UpdateOutcomeUnknownException;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.kafka.KafkaProducerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind for {@code updateUser}: updates are parked per user id and a flusher writes them
+ * every {@code window-ms}, so any number of updates to one user within a window become a single
+ * UPDATE (last write wins). Each flush loads its batch of users with one query and writes them in
+ * one transaction.
+ * <p>
+ * With {@code ack=flush} the caller waits until its update is committed and gets the same
+ * errors as without write-behind. If the write takes longer than {@code ack-timeout-ms}, an update
+ * the flusher has not picked up yet is withdrawn; one already being written may or may not land.
+ * Either way the caller gets {@link UpdateOutcomeUnknownException} rather than a success or a
+ * failure it cannot trust.
+ * <p>
+ * With {@code ack=enqueue} the caller returns as soon as the update is parked. The user must exist
+ * and the new email must be free at that moment, so those errors are still reported, but a 200 only
+ * means the update was accepted: a conflict that appears before the flush is only logged and
+ * counted, and updates still pending are lost if the process dies.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.users.write-behind", name = "enabled", havingValue = "true")
+public class UserUpdateCoalescer {
+
+    public enum AckMode {
+        FLUSH, ENQUEUE
+    }
+
+    private final UserRepository userRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.users.write-behind.window-ms:50}")
+    private long windowMs;
+
+    @Value("${app.users.write-behind.ack:flush}")
+    private AckMode ackMode;
+
+    @Value("${app.users.write-behind.ack-timeout-ms:5000}")
+    private long ackTimeoutMs;
+
+    @Value("${app.users.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.users.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${app.sharding.enabled:false}")
+    private boolean shardingEnabled;
+
+    private Counter requestsCounter;
+    private Counter writesCounter;
+    private Counter failuresCounter;
+    private DistributionSummary coalescingFactor;
+    private Timer flushTimer;
+
+    public UserUpdateCoalescer(UserRepository userRepository, KafkaProducerService kafkaProducerService,
+                               TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        if (shardingEnabled) {
+            // A flush writes its whole batch in one transaction, which sharding binds to a single shard
+            throw new IllegalStateException("app.users.write-behind cannot be combined with app.sharding");
+        }
+        requestsCounter = Counter.builder("users.write_behind.requests")
+                .description("Updates accepted for write-behind")
+                .register(meterRegistry);
+        writesCounter = Counter.builder("users.write_behind.writes")
+                .description("Users written by the write-behind flusher")
+                .register(meterRegistry);
+        failuresCounter = Counter.builder("users.write_behind.failures")
+                .description("Coalesced updates that could not be written")
+                .register(meterRegistry);
+        coalescingFactor = DistributionSummary.builder("users.write_behind.coalescing_factor")
+                .description("Updates merged into each written user")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("users.write_behind.flush")
+                .description("Time to write one batch")
+                .register(meterRegistry);
+        Gauge.builder("users.write_behind.pending", pending, Map::size)
+                .description("Users with updates waiting for the next flush")
+                .register(meterRegistry);
+
+        flusher.scheduleWithFixedDelay(this::flushSafely, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    /**
+     * Parks the update for the next flush.
+     *
+     * @return the updated user, or null if too many users are pending and the caller should
+     * update synchronously instead
+     */
+    public UserResponseDto update(Long id, UserRequestDto userRequestDto) {
+        if (pending.size() >= maxPending && !pending.containsKey(id)) {
+            return null;
+        }
+        if (ackMode == AckMode.ENQUEUE) {
+            return enqueue(id, userRequestDto);
+        }
+
+        CompletableFuture<UserResponseDto> result = new CompletableFuture<>();
+        pending.compute(id, (key, existing) -> (existing != null ? existing : new PendingUpdate())
+                .merge(userRequestDto, result));
+        requestsCounter.increment();
+        try {
+            return result.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to update user with id " + id, e.getCause());
+        } catch (TimeoutException e) {
+            return timedOut(id, result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the update of user " + id, e);
+        }
+    }
+
+    private UserResponseDto enqueue(Long id, UserRequestDto userRequestDto) {
+        // Checked up front so that a 200 is never sent for an update that cannot be written
+        User user = userRepository.findById(id)
+                .filter(existing -> existing.getDeletedAt() == null)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+        userRepository.findByEmail(userRequestDto.getEmail())
+                .filter(owner -> !owner.getId().equals(id))
+                .ifPresent(owner -> {
+                    throw new EmailAlreadyExistsException(userRequestDto.getEmail());
+                });
+
+        pending.compute(id, (key, existing) -> (existing != null ? existing : new PendingUpdate())
+                .merge(userRequestDto, null));
+        requestsCounter.increment();
+        return new UserResponseDto(id, userRequestDto.getName(), userRequestDto.getEmail(),
+                userRequestDto.getAge(), user.getCreatedAt());
+    }
+
+    private UserResponseDto timedOut(Long id, CompletableFuture<UserResponseDto> result) {
+        AtomicBoolean withdrawn = new AtomicBoolean();
+        pending.computeIfPresent(id, (key, update) -> {
+            withdrawn.set(update.withdraw(result));
+            return update.waiters.isEmpty() ? null : update;
+        });
+        if (withdrawn.get()) {
+            throw new UpdateOutcomeUnknownException("Update of user " + id + " was not written within "
+                    + ackTimeoutMs + " ms and has been withdrawn");
+        }
+        // Already handed to the flusher: wait for it if it finished in the meantime, otherwise the
+        // write is in flight and may still commit
+        if (result.isDone()) {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+            }
+        }
+        throw new UpdateOutcomeUnknownException("Update of user " + id + " was not confirmed within "
+                + ackTimeoutMs + " ms and may still be applied");
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed", e);
+        }
+    }
+
+    /**
+     * Writes everything pending now; called by the flusher every window and on shutdown.
+     */
+    public void flush() {
+        Map<Long, PendingUpdate> batch = new LinkedHashMap<>();
+        for (Long id : pending.keySet()) {
+            // Removed atomically with respect to compute(): later updates start a new entry
+            PendingUpdate update = pending.remove(id);
+            if (update != null) {
+                batch.put(id, update);
+            }
+            if (batch.size() == maxBatchSize) {
+                write(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(Map<Long, PendingUpdate> batch) {
+        Map<Long, User> written;
+        try {
+            written = flushTimer.record(() -> transactionTemplate.execute(status -> apply(batch)));
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // One bad update (e.g. a duplicate email) must not fail the others
+                batch.forEach((id, update) -> write(Map.of(id, update)));
+            } else {
+                batch.forEach((id, update) -> fail(id, update, e instanceof DataIntegrityViolationException
+                        ? new EmailAlreadyExistsException(update.latest.getEmail(), e) : e));
+            }
+            return;
+        }
+
+        batch.forEach((id, update) -> {
+            User user = written.get(id);
+            if (user == null) {
+                fail(id, update, new UserNotFoundException("User not found with id: " + id));
+                return;
+            }
+            writesCounter.increment();
+            coalescingFactor.record(update.requests);
+            kafkaProducerService.sendUserEvent(UserEvent.createUserUpdatedEvent(user.getId(), user.getEmail(), user.getName()));
+            UserResponseDto response = new UserResponseDto(user.getId(), user.getName(), user.getEmail(),
+                    user.getAge(), user.getCreatedAt());
+            update.waiters.keySet().forEach(waiter -> waiter.complete(response));
+        });
+    }
+
+    private Map<Long, User> apply(Map<Long, PendingUpdate> batch) {
+        // Locked like UserServiceImpl's write paths: a user deleted meanwhile is missing, not revived
+        Map<Long, User> users = userRepository.findAllByIdForUpdate(batch.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        users.forEach((id, user) -> {
+            UserRequestDto latest = batch.get(id).latest;
+            user.setName(latest.getName());
+            user.setEmail(latest.getEmail());
+            user.setAge(latest.getAge());
+        });
+        // Dirty users go out as JDBC-batched UPDATEs
+        userRepository.flush();
+        return users;
+    }
+
+    private void fail(Long id, PendingUpdate update, RuntimeException e) {
+        failuresCounter.increment();
+        if (update.waiters.isEmpty()) {
+            log.warn("Dropped {} coalesced update(s) of user {}: {}", update.requests, id, e.getMessage());
+        }
+        update.waiters.keySet().forEach(waiter -> waiter.completeExceptionally(e));
+    }
+
+    private static class PendingUpdate {
+        private UserRequestDto latest;
+        private int requests;
+        // Each waiter's own update, in arrival order, so a withdrawn one can be taken back out
+        private final Map<CompletableFuture<UserResponseDto>, UserRequestDto> waiters = new LinkedHashMap<>(2);
+
+        PendingUpdate merge(UserRequestDto update, CompletableFuture<UserResponseDto> waiter) {
+            latest = update;
+            requests++;
+            if (waiter != null) {
+                waiters.put(waiter, update);
+            }
+            return this;
+        }
+
+        // Only used with ack=flush, where every update has a waiter
+        boolean withdraw(CompletableFuture<UserResponseDto> waiter) {
+            if (waiters.remove(waiter) == null) {
+                return false;
+            }
+            requests--;
+            waiters.values().forEach(update -> latest = update);
+            return true;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.userservice.service.kafka;
 
+import com.example.userservice.diagnostics.KafkaSendEvent;
 import com.example.userservice.event.UserEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,10 +19,20 @@ public class KafkaProducerService {
     private String userEventsTopic;
 
     public void sendUserEvent(UserEvent userEvent) {
+        KafkaSendEvent sendEvent = KafkaSendEvent.begin(userEventsTopic, userEvent.getEventType(), userEvent.getUserId());
         try {
-            kafkaTemplate.send(userEventsTopic, userEvent);
+            // Keyed by user id so all events of one user land in one partition, in order
+            kafkaTemplate.send(userEventsTopic, String.valueOf(userEvent.getUserId()), userEvent)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            sendEvent.failed(error);
+                        } else {
+                            sendEvent.acknowledged(result.getRecordMetadata().partition());
+                        }
+                    });
             log.info("Sent user event to Kafka: {}", userEvent);
         } catch (Exception e) {
+            sendEvent.failed(e);
             log.error("Failed to send user event to Kafka: {}", userEvent, e);
         }
     }
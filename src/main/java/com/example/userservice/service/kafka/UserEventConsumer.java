@@ -0,0 +1,139 @@
+package com.example.userservice.service.kafka;
+
+import com.example.userservice.event.UserEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.kafka.projection", name = "enabled", havingValue = "true")
+public class UserEventConsumer implements ConsumerSeekAware {
+
+    private final UserProjectionStore projectionStore;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<TopicPartition, AtomicLong> lagByPartition = new ConcurrentHashMap<>();
+    private volatile long lastSnapshotAt = System.currentTimeMillis();
+
+    @Value("${app.kafka.projection.snapshot-path:data/user-projection.snapshot}")
+    private Path snapshotPath;
+
+    @Value("${app.kafka.projection.snapshot-interval-ms:30000}")
+    private long snapshotIntervalMs;
+
+    @PostConstruct
+    void restoreSnapshot() {
+        Gauge.builder("user.projection.size", projectionStore, UserProjectionStore::size)
+                .description("Users held in the local projection")
+                .register(meterRegistry);
+
+        if (!Files.exists(snapshotPath)) {
+            log.info("No user projection snapshot at {}, rebuilding from the beginning of the topic", snapshotPath);
+            return;
+        }
+        try {
+            projectionStore.loadSnapshot(snapshotPath);
+        } catch (IOException e) {
+            log.warn("Failed to load user projection snapshot from {}, rebuilding from the beginning of the topic",
+                    snapshotPath, e);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // Called once with the manual assignment; the projection resumes where its snapshot ends
+        Map<TopicPartition, Long> snapshotOffsets = projectionStore.offsets();
+        for (TopicPartition partition : assignments.keySet()) {
+            Long offset = snapshotOffsets.get(partition);
+            if (offset != null) {
+                callback.seek(partition.topic(), partition.partition(), offset);
+            } else {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            }
+        }
+    }
+
+    @KafkaListener(
+            id = "user-projection",
+            idIsGroup = false,
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = "${app.kafka.topic.user-events}",
+                    partitions = "#{@userEventPartitions}"
+            ),
+            containerFactory = "userEventBatchListenerFactory"
+    )
+    public void onUserEvents(List<ConsumerRecord<String, UserEvent>> records, Consumer<?, ?> consumer) {
+        for (ConsumerRecord<String, UserEvent> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (record.value() == null) {
+                log.warn("Skipping unreadable user event at {}@{}", partition, record.offset());
+                continue;
+            }
+            projectionStore.apply(record.value(), partition, record.offset());
+        }
+
+        recordLag(consumer);
+        snapshotIfDue();
+    }
+
+    @PreDestroy
+    void writeFinalSnapshot() {
+        writeSnapshot();
+    }
+
+    private void recordLag(Consumer<?, ?> consumer) {
+        for (TopicPartition partition : consumer.assignment()) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isPresent()) {
+                lagByPartition.computeIfAbsent(partition, this::registerLagGauge).set(lag.getAsLong());
+            }
+        }
+    }
+
+    private AtomicLong registerLagGauge(TopicPartition partition) {
+        AtomicLong lag = new AtomicLong();
+        Gauge.builder("user.projection.lag", lag, AtomicLong::get)
+                .description("Records behind the end of the user-events partition")
+                .tag("topic", partition.topic())
+                .tag("partition", String.valueOf(partition.partition()))
+                .register(meterRegistry);
+        return lag;
+    }
+
+    private void snapshotIfDue() {
+        if (System.currentTimeMillis() - lastSnapshotAt >= snapshotIntervalMs) {
+            writeSnapshot();
+        }
+    }
+
+    private void writeSnapshot() {
+        try {
+            projectionStore.writeSnapshot(snapshotPath);
+            lastSnapshotAt = System.currentTimeMillis();
+        } catch (IOException e) {
+            log.error("Failed to write user projection snapshot to {}", snapshotPath, e);
+        }
+    }
+}
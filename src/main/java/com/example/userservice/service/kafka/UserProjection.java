@@ -0,0 +1,17 @@
+package com.example.userservice.service.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProjection {
+
+    private Long id;
+
+    private String name;
+
+    private String email;
+}
@@ -0,0 +1,114 @@
+package com.example.userservice.service.kafka;
+
+import com.example.userservice.event.UserEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local read model of users (id -> name/email) built from the user-events topic.
+ * Tracks the next offset to read per partition so a snapshot can be resumed exactly.
+ * <p>
+ * Held on the heap rather than in a memory-mapped file: entries are small, variable-length and
+ * overwritten in place, which a mapped file would need its own index, free-space handling and
+ * compaction for, while the whole projection is bounded by the users table. The mapped file's main
+ * benefit, not rebuilding on restart, comes from the snapshot plus replaying the events after it.
+ */
+@Slf4j
+public class UserProjectionStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x55505331;
+
+    private final Map<Long, UserProjection> users = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Long> offsets = new ConcurrentHashMap<>();
+
+    public Optional<UserProjection> get(Long id) {
+        return Optional.ofNullable(users.get(id));
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    public Map<TopicPartition, Long> offsets() {
+        return Map.copyOf(offsets);
+    }
+
+    public void apply(UserEvent event, TopicPartition partition, long offset) {
+        switch (event.getEventType()) {
+            case "USER_CREATED", "USER_UPDATED" -> users.put(event.getUserId(),
+                    new UserProjection(event.getUserId(), event.getUserName(), event.getUserEmail()));
+            case "USER_DELETED", "USER_PURGED" -> users.remove(event.getUserId());
+            default -> log.debug("Ignoring user event of type {}", event.getEventType());
+        }
+        offsets.merge(partition, offset + 1, Math::max);
+    }
+
+    /**
+     * Writes the projection to a temporary file and atomically moves it over {@code file}.
+     * Offsets are captured before the users, so a snapshot never claims more than it holds;
+     * replaying a few already applied events on restore is harmless.
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        Map<TopicPartition, Long> offsetsCopy = offsets();
+        Map<Long, UserProjection> usersCopy = new HashMap<>(users);
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(offsetsCopy.size());
+            for (Map.Entry<TopicPartition, Long> entry : offsetsCopy.entrySet()) {
+                out.writeUTF(entry.getKey().topic());
+                out.writeInt(entry.getKey().partition());
+                out.writeLong(entry.getValue());
+            }
+            out.writeInt(usersCopy.size());
+            for (UserProjection user : usersCopy.values()) {
+                out.writeLong(user.getId());
+                out.writeUTF(user.getName());
+                out.writeUTF(user.getEmail());
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote user projection snapshot with {} users to {}", usersCopy.size(), file);
+    }
+
+    public void loadSnapshot(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a user projection snapshot: " + file);
+            }
+            Map<TopicPartition, Long> loadedOffsets = new HashMap<>();
+            int partitions = in.readInt();
+            for (int i = 0; i < partitions; i++) {
+                loadedOffsets.put(new TopicPartition(in.readUTF(), in.readInt()), in.readLong());
+            }
+            Map<Long, UserProjection> loadedUsers = new HashMap<>();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                loadedUsers.put(id, new UserProjection(id, in.readUTF(), in.readUTF()));
+            }
+
+            users.clear();
+            users.putAll(loadedUsers);
+            offsets.clear();
+            offsets.putAll(loadedOffsets);
+        }
+        log.info("Loaded user projection snapshot with {} users from {}", users.size(), file);
+    }
+}
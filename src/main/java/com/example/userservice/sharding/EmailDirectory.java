@@ -0,0 +1,69 @@
+package com.example.userservice.sharding;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Global email -> user id mapping that enforces email uniqueness across shards and lets
+ * lookups by email go straight to the owning shard.
+ */
+@RequiredArgsConstructor
+public class EmailDirectory {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createTableIfMissing() {
+        jdbcTemplate.execute("create table if not exists user_email_directory (" +
+                "email varchar(255) primary key, " +
+                "user_id bigint not null)");
+    }
+
+    public Optional<Long> lookup(String email) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select user_id from user_email_directory where email = ?", Long.class, email);
+        return ids.stream().findFirst();
+    }
+
+    /**
+     * Claims {@code email} for {@code userId}.
+     *
+     * @return true if the entry was created, false if the user already owned it
+     * @throws DuplicateKeyException if another user owns the email
+     */
+    public boolean reserve(String email, long userId) {
+        try {
+            jdbcTemplate.update("insert into user_email_directory (email, user_id) values (?, ?)", email, userId);
+            return true;
+        } catch (DuplicateKeyException e) {
+            if (lookup(email).filter(owner -> owner == userId).isPresent()) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    public void release(String email, long userId) {
+        jdbcTemplate.update("delete from user_email_directory where email = ? and user_id = ?", email, userId);
+    }
+
+    public void releaseAllExcept(long userId, String email) {
+        jdbcTemplate.update("delete from user_email_directory where user_id = ? and email <> ?", userId, email);
+    }
+
+    public void releaseAll(long userId) {
+        jdbcTemplate.update("delete from user_email_directory where user_id = ?", userId);
+    }
+
+    public void releaseAll(List<Long> userIds) {
+        jdbcTemplate.batchUpdate("delete from user_email_directory where user_id = ?", userIds, userIds.size(),
+                (statement, userId) -> statement.setLong(1, userId));
+    }
+
+    public void clear() {
+        jdbcTemplate.update("delete from user_email_directory");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.userservice.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    /**
+     * Merges lists that are each sorted by {@code comparator}, stopping after {@code limit} elements.
+     */
+    public static <T> List<T> merge(List<List<T>> sortedLists, Comparator<? super T> comparator, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                (a, b) -> comparator.compare(a.current(), b.current()));
+        int total = 0;
+        for (List<T> list : sortedLists) {
+            if (!list.isEmpty()) {
+                heads.add(new Cursor<>(list));
+                total += list.size();
+            }
+        }
+
+        List<T> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> head = heads.poll();
+            merged.add(head.current());
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Cursor<T> {
+        private final List<T> list;
+        private int position;
+
+        private Cursor(List<T> list) {
+            this.list = list;
+        }
+
+        private T current() {
+            return list.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < list.size();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.userservice.sharding;
+
+/**
+ * Shard the current thread's database work is routed to, see {@link ShardRoutingDataSource}.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.userservice.sharding;
+
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Sharding layer under UserRepository. Calls that identify one user (by id, entity or email)
+ * run on that user's shard, which stays bound for the rest of the surrounding transaction.
+ * List, count and deleteAll calls are sent to every shard in its own transaction and the
+ * per-shard results, ordered by id, are combined with a k-way merge. Purges are split by shard.
+ */
+@Slf4j
+@Aspect
+public class ShardRoutingAspect implements DisposableBean {
+
+    private static final Comparator<Object> BY_ID = Comparator.comparingLong(ShardRoutingAspect::idOf);
+
+    private final int shardCount;
+    private final EmailDirectory emailDirectory;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRoutingAspect(int shardCount, EmailDirectory emailDirectory,
+                              PlatformTransactionManager transactionManager, int scatterThreads) {
+        this.shardCount = shardCount;
+        this.emailDirectory = emailDirectory;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.scatterExecutor = Executors.newFixedThreadPool(scatterThreads);
+    }
+
+    @Around("target(com.example.userservice.repository.UserRepository)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Object[] args = joinPoint.getArgs();
+
+        if (args.length == 1 && args[0] instanceof User user) {
+            return method.startsWith("delete") ? delete(joinPoint, user.getId()) : save(joinPoint, user);
+        }
+        if (args.length == 1 && args[0] instanceof Long id) {
+            return method.startsWith("delete") ? delete(joinPoint, id) : proceedOnShard(shardOf(id), joinPoint::proceed);
+        }
+        if (method.equals("findByEmail")) {
+            Optional<Long> id = emailDirectory.lookup((String) args[0]);
+            return id.isPresent() ? proceedOnShard(shardOf(id.get()), joinPoint::proceed) : Optional.empty();
+        }
+        if (method.equals("purgeDeletedBefore")) {
+            return purgeDeletedBefore(joinPoint);
+        }
+        if (method.equals("flush")) {
+            return joinPoint.proceed();
+        }
+        if (method.startsWith("find") && List.class.isAssignableFrom(returnType(joinPoint))) {
+            return mergeById(scatter(joinPoint, readTransaction), limitOf(args));
+        }
+        if (method.equals("count")) {
+            return scatter(joinPoint, readTransaction).stream().mapToLong(count -> (Long) count).sum();
+        }
+        if (args.length == 0 && method.startsWith("deleteAll")) {
+            scatter(joinPoint, writeTransaction);
+            emailDirectory.clear();
+            return null;
+        }
+        throw new UnsupportedOperationException("UserRepository." + method + " is not supported with sharding enabled");
+    }
+
+    @Override
+    public void destroy() {
+        scatterExecutor.shutdown();
+    }
+
+    public static int shardOf(long id) {
+        return ShardedIdGenerator.shardOf(id);
+    }
+
+    private int shardForNewUser(String email) {
+        return Math.floorMod(email.hashCode(), shardCount);
+    }
+
+    private Object save(ProceedingJoinPoint joinPoint, User user) throws Throwable {
+        int shard = user.getId() == null ? shardForNewUser(user.getEmail()) : shardOf(user.getId());
+        return proceedOnShard(shard, () -> {
+            // Runs after persist, so a new user already has its id
+            User saved = (User) joinPoint.proceed();
+            if (saved.getDeletedAt() != null) {
+                // Soft delete: the email is free at once, the row is purged later
+                afterCommit(() -> emailDirectory.releaseAll(saved.getId()));
+            } else {
+                reserveEmail(saved.getId(), saved.getEmail());
+            }
+            return saved;
+        });
+    }
+
+    private Object delete(ProceedingJoinPoint joinPoint, Long id) throws Throwable {
+        Object result = proceedOnShard(shardOf(id), joinPoint::proceed);
+        afterCommit(() -> emailDirectory.releaseAll(id));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> purgeDeletedBefore(ProceedingJoinPoint joinPoint) throws Throwable {
+        List<Long> purged = scatter(joinPoint, writeTransaction).stream()
+                .flatMap(ids -> ((List<Long>) ids).stream())
+                .toList();
+        if (!purged.isEmpty()) {
+            emailDirectory.releaseAll(purged);
+        }
+        return purged;
+    }
+
+    private void reserveEmail(long id, String email) {
+        boolean created = emailDirectory.reserve(email, id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            emailDirectory.releaseAllExcept(id, email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    emailDirectory.releaseAllExcept(id, email);
+                } else if (created) {
+                    emailDirectory.release(email, id);
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Object proceedOnShard(int shard, ShardCall call) throws Throwable {
+        Integer bound = ShardContext.current();
+        if (bound != null) {
+            if (bound != shard) {
+                throw new IllegalStateException("Transaction is bound to shard " + bound + ", cannot access shard " + shard);
+            }
+            return call.proceed();
+        }
+
+        ShardContext.bind(shard);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The connection may only be fetched later (e.g. at flush), so keep the shard until completion
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ShardContext.clear();
+                }
+            });
+            return call.proceed();
+        }
+        try {
+            return call.proceed();
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private List<Object> scatter(ProceedingJoinPoint joinPoint, TransactionTemplate transaction) throws Throwable {
+        List<CompletableFuture<Object>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> callOnShard(target, joinPoint, transaction), scatterExecutor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private Object callOnShard(int shard, ProceedingJoinPoint joinPoint, TransactionTemplate transaction) {
+        ShardContext.bind(shard);
+        try {
+            return transaction.execute(status -> {
+                try {
+                    return joinPoint.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> mergeById(List<Object> shardResults, int limit) {
+        List<List<Object>> sorted = new ArrayList<>(shardResults.size());
+        for (Object result : shardResults) {
+            List<Object> rows = new ArrayList<>((List<Object>) result);
+            rows.sort(BY_ID);
+            sorted.add(rows);
+        }
+        return KWayMerge.merge(sorted, BY_ID, limit);
+    }
+
+    private static int limitOf(Object[] args) {
+        return Arrays.stream(args)
+                .filter(arg -> arg instanceof Limit limit && limit.isLimited())
+                .mapToInt(arg -> ((Limit) arg).max())
+                .findFirst()
+                .orElse(Integer.MAX_VALUE);
+    }
+
+    private static long idOf(Object row) {
+        if (row instanceof User user) {
+            return user.getId();
+        }
+        if (row instanceof UserResponseDto dto) {
+            return dto.getId();
+        }
+        throw new IllegalStateException("Cannot merge " + row.getClass().getName() + " rows by id");
+    }
+
+    private static Class<?> returnType(ProceedingJoinPoint joinPoint) {
+        return ((MethodSignature) joinPoint.getSignature()).getReturnType();
+    }
+
+    @FunctionalInterface
+    private interface ShardCall {
+        Object proceed() throws Throwable;
+    }
+}
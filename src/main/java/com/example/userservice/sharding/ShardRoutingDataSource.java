@@ -0,0 +1,29 @@
+package com.example.userservice.sharding;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes connections to the shard bound in {@link ShardContext}; unbound work (schema metadata at
+ * startup, for example) goes to the default shard 0. Wrapped in a LazyConnectionDataSourceProxy so
+ * the target is chosen at the first statement rather than when the transaction begins.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource shard : getResolvedDataSources().values()) {
+            // Also reaches pools behind a wrapper such as the connection diagnostics
+            if (shard.isWrapperFor(AutoCloseable.class)) {
+                shard.unwrap(AutoCloseable.class).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.userservice.sharding;
+
+import com.example.userservice.id.IdGenerator;
+import com.example.userservice.id.SnowflakeIdGenerator;
+
+import java.time.Clock;
+
+/**
+ * Encodes the shard in the Snowflake node id: the upper {@link #SHARD_BITS} bits of the node id
+ * are the shard and the lower bits the application node, so every shard has its own sequence
+ * space and {@link #shardOf(long)} needs nothing but the id.
+ */
+public class ShardedIdGenerator implements IdGenerator {
+
+    public static final int SHARD_BITS = 5;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    private static final int NODE_BITS = SnowflakeIdGenerator.NODE_BITS - SHARD_BITS;
+
+    private final SnowflakeIdGenerator[] generators;
+
+    public ShardedIdGenerator(int shardCount, long nodeId, long maxClockSkewMillis) {
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + MAX_SHARDS + ": " + shardCount);
+        }
+        if (nodeId < 0 || nodeId >= 1L << NODE_BITS) {
+            throw new IllegalArgumentException("Node id must be below " + (1L << NODE_BITS) + " when sharding: " + nodeId);
+        }
+        generators = new SnowflakeIdGenerator[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            generators[shard] = new SnowflakeIdGenerator(((long) shard << NODE_BITS) | nodeId,
+                    Clock.systemUTC(), maxClockSkewMillis);
+        }
+    }
+
+    @Override
+    public long nextId() {
+        Integer shard = ShardContext.current();
+        if (shard == null) {
+            throw new IllegalStateException("No shard bound for id generation");
+        }
+        return generators[shard].nextId();
+    }
+
+    public static int shardOf(long id) {
+        return (int) (SnowflakeIdGenerator.nodeIdOf(id) >>> NODE_BITS);
+    }
+}
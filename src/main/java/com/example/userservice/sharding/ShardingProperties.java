@@ -0,0 +1,29 @@
+package com.example.userservice.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    private List<Database> shards = new ArrayList<>();
+
+    /** Global email -> id directory; defaults to shard 0 when no url is set. */
+    private Database directory = new Database();
+
+    /** Threads used to query all shards in parallel for list calls. */
+    private int scatterThreads = 8;
+
+    @Data
+    public static class Database {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
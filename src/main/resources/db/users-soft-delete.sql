@@ -0,0 +1,39 @@
+-- Soft delete for users (PostgreSQL). Run before deploying the version that maps users.deleted_at.
+-- CREATE INDEX CONCURRENTLY cannot run inside a transaction block: execute statement by statement.
+
+alter table users add column if not exists deleted_at timestamp(6);
+
+-- Every application query filters on deleted_at is null. Live-only index for the id-ordered
+-- list and keyset pages, covering the listed columns so they can be served by index-only scans.
+create index concurrently if not exists ix_users_live_id
+    on users (id) include (name, email, age, created_at)
+    where deleted_at is null;
+
+-- Purge candidates: only the rows waiting for removal are indexed.
+create index concurrently if not exists ix_users_deleted_at
+    on users (deleted_at)
+    where deleted_at is not null;
+
+-- Emails are unique among live users only, so a deleted user's email can be registered again
+-- at once. Build the partial index first, then drop the unique constraints over all rows: the
+-- named uk_user_email and the one Hibernate generated for the column's unique = true.
+create unique index concurrently if not exists ux_users_email_live
+    on users (email)
+    where deleted_at is null;
+
+do $$
+declare
+    constraint_name text;
+begin
+    for constraint_name in
+        select c.conname
+        from pg_constraint c
+        where c.conrelid = 'users'::regclass
+          and c.contype = 'u'
+          and c.conkey = array[(select attnum from pg_attribute
+                                where attrelid = 'users'::regclass and attname = 'email')]
+    loop
+        execute format('alter table users drop constraint %I', constraint_name);
+    end loop;
+end
+$$;
@@ -0,0 +1,71 @@
+package com.example.userservice;
+
+import com.example.userservice.diagnostics.ConnectionHoldTracker;
+import com.example.userservice.diagnostics.ConnectionTrackingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionHoldTrackerTest {
+
+    private final ConnectionHoldTracker tracker = new ConnectionHoldTracker(100);
+    private final Connection connection = mock(Connection.class);
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new ConnectionTrackingDataSource(target, tracker);
+    }
+
+    @Test
+    void testConnectionsAreChargedToTheirEndpoint() throws Exception {
+        tracker.beginRequest("GET /api/users/1");
+        dataSource.getConnection().close();
+        dataSource.getConnection().close();
+        tracker.endRequest("GET /api/users/{id}");
+
+        ConnectionHoldTracker.Report report = tracker.report();
+        assertThat(report.endpoints()).singleElement().satisfies(endpoint -> {
+            assertThat(endpoint.endpoint()).isEqualTo("GET /api/users/{id}");
+            assertThat(endpoint.requests()).isEqualTo(1);
+            assertThat(endpoint.connections()).isEqualTo(2);
+            assertThat(endpoint.leaks()).isZero();
+        });
+        assertThat(report.openConnections()).isZero();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testConnectionStillOpenAtEndOfRequestIsReportedAsLeak() throws Exception {
+        tracker.beginRequest("DELETE /api/users/1");
+        Connection leaked = dataSource.getConnection();
+        tracker.endRequest("DELETE /api/users/{id}");
+
+        ConnectionHoldTracker.Report report = tracker.report();
+        assertThat(report.endpoints()).singleElement()
+                .satisfies(endpoint -> assertThat(endpoint.leaks()).isEqualTo(1));
+        assertThat(report.recentLeaks()).singleElement()
+                .satisfies(leak -> assertThat(leak.acquiredAt()).contains("ConnectionHoldTrackerTest"));
+
+        leaked.close();
+        assertThat(tracker.report().openConnections()).isZero();
+    }
+
+    @Test
+    void testConnectionsOutsideRequestsAreChargedToBackground() throws Exception {
+        dataSource.getConnection().close();
+
+        assertThat(tracker.report().endpoints()).singleElement()
+                .satisfies(endpoint -> assertThat(endpoint.endpoint()).isEqualTo(ConnectionHoldTracker.BACKGROUND));
+    }
+}
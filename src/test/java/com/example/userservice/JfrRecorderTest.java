@@ -0,0 +1,93 @@
+package com.example.userservice;
+
+import com.example.userservice.diagnostics.JfrRecorder;
+import com.example.userservice.diagnostics.KafkaSendEvent;
+import com.example.userservice.diagnostics.SlowOperationsReport;
+import com.example.userservice.diagnostics.UserOperationRecorder;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.service.UserService;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JfrRecorderTest {
+
+    private final JfrRecorder recorder = new JfrRecorder("default", Duration.ofMinutes(5), 64L * 1024 * 1024, Duration.ZERO);
+
+    @AfterEach
+    void tearDown() {
+        recorder.close();
+    }
+
+    @Test
+    void testSummaryListsSlowestOperationsFirst() throws Exception {
+        UserService target = mock(UserService.class);
+        when(target.getUserById(42L)).thenAnswer(invocation -> {
+            Thread.sleep(30);
+            return new UserResponseDto(42L, "Slow", "slow@example.com", 30, null);
+        });
+        when(target.getAllUsers()).thenReturn(List.of(
+                new UserResponseDto(1L, "A", "a@example.com", 20, null),
+                new UserResponseDto(2L, "B", "b@example.com", 21, null)));
+        doThrow(new UserNotFoundException("User not found with id: 7")).when(target).deleteUser(anyLong());
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new UserOperationRecorder());
+        UserService userService = factory.getProxy();
+
+        assertThat(recorder.start(null).state()).isEqualTo("RUNNING");
+        userService.getAllUsers();
+        userService.getUserById(42L);
+        assertThatThrownBy(() -> userService.deleteUser(7L)).isInstanceOf(UserNotFoundException.class);
+        KafkaSendEvent.begin("user-events", "USER_CREATED", 42L).acknowledged(0);
+        assertThat(recorder.stop().state()).isEqualTo("STOPPED");
+
+        SlowOperationsReport report = recorder.summary(2);
+        assertThat(report.slowest()).hasSize(2);
+        assertThat(report.slowest().get(0)).satisfies(slowest -> {
+            assertThat(slowest.operation()).isEqualTo("getUserById");
+            assertThat(slowest.userId()).isEqualTo(42L);
+            assertThat(slowest.durationMillis()).isGreaterThanOrEqualTo(30);
+        });
+        assertThat(report.operations())
+                .extracting(SlowOperationsReport.OperationStats::operation)
+                .containsExactlyInAnyOrder("getUserById", "getAllUsers", "deleteUser", "kafka USER_CREATED");
+        assertThat(report.operations().get(0).operation()).isEqualTo("getUserById");
+    }
+
+    @Test
+    void testRecordingLeavesOutEnvironmentAndSystemProperties() throws Exception {
+        recorder.start(null);
+        recorder.stop();
+
+        Path dump = recorder.dump();
+        try {
+            assertThat(RecordingFile.readAllEvents(dump))
+                    .extracting(event -> event.getEventType().getName())
+                    .isNotEmpty()
+                    .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+        } finally {
+            Files.delete(dump);
+        }
+    }
+
+    @Test
+    void testNothingToDumpBeforeFirstRecording() throws Exception {
+        assertThat(recorder.status().state()).isEqualTo("NONE");
+        assertThat(recorder.dump()).isNull();
+        assertThat(recorder.summary(10)).isNull();
+    }
+}
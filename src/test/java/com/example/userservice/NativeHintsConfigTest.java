@@ -0,0 +1,36 @@
+package com.example.userservice;
+
+import com.example.userservice.config.NativeHintsConfig;
+import com.example.userservice.entity.User;
+import com.example.userservice.id.DistributedIdentifierGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Native compilation needs GraalVM, so the hints the image depends on are checked here instead.
+ */
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsConfigTest() {
+        new NativeHintsConfig.UserServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testCacheConfigurationIsIncluded() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("ehcache.xml")).accepts(hints);
+    }
+
+    @Test
+    void testReflectivelyCreatedTypesAreRegistered() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(DistributedIdentifierGenerator.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(User.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.userservice;
+
+import com.example.userservice.dto.UserRequestDto;
+import com.example.userservice.diagnostics.ConnectionHoldTracker;
+import com.example.userservice.diagnostics.ConnectionTrackingDataSource;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.exception.EmailAlreadyExistsException;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserPurger;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.kafka.KafkaProducerService;
+import com.example.userservice.sharding.ShardRoutingAspect;
+import com.example.userservice.sharding.ShardRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "app.sharding.enabled=true",
+        "app.sharding.shards[0].url=jdbc:h2:mem:users-shard-0;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:sharding/users-schema.sql'",
+        "app.sharding.shards[0].username=sa",
+        "app.sharding.shards[1].url=jdbc:h2:mem:users-shard-1;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:sharding/users-schema.sql'",
+        "app.sharding.shards[1].username=sa",
+        "app.sharding.directory.url=jdbc:h2:mem:users-directory;DB_CLOSE_DELAY=-1",
+        "app.sharding.directory.username=sa",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "app.users.purge.retention=PT0S",
+        "app.users.purge.interval-ms=3600000",
+        "app.db.diagnostics.enabled=true"
+})
+@DirtiesContext
+class ShardedUserRepositoryTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private UserPurger userPurger;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConnectionHoldTracker connectionHoldTracker;
+
+    @MockBean
+    private KafkaProducerService kafkaProducerService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        // deleteAll only sees live users; drop soft-deleted leftovers as well
+        for (int shard = 0; shard < 2; shard++) {
+            shardJdbc(shard).update("delete from users");
+        }
+    }
+
+    @Test
+    void testUsersAreSpreadOverShardsAndListedInIdOrder() {
+        for (int i = 0; i < 20; i++) {
+            userService.createUser(new UserRequestDto("User " + i, "user" + i + "@example.com", 20 + i));
+        }
+
+        for (int shard = 0; shard < 2; shard++) {
+            List<Long> ids = shardJdbc(shard).queryForList("select id from users", Long.class);
+            assertThat(ids).isNotEmpty();
+            for (Long id : ids) {
+                assertThat(ShardRoutingAspect.shardOf(id)).isEqualTo(shard);
+            }
+        }
+
+        List<UserResponseDto> all = userService.getAllUsers();
+        assertThat(all).hasSize(20);
+        assertThat(all).extracting(UserResponseDto::getId).isSorted();
+
+        List<UserResponseDto> paged = new ArrayList<>();
+        Long afterId = null;
+        List<UserResponseDto> page;
+        do {
+            page = userService.getUsersPage(afterId, 7);
+            paged.addAll(page);
+            afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).getId();
+        } while (page.size() == 7);
+        assertThat(paged).isEqualTo(all);
+    }
+
+    @Test
+    void testLookupsAndEmailUniquenessAcrossShards() {
+        UserResponseDto alice = userService.createUser(new UserRequestDto("Alice", "alice@example.com", 28));
+
+        assertThat(userService.getUserById(alice.getId()).getEmail()).isEqualTo("alice@example.com");
+        assertThat(userRepository.findByEmail("alice@example.com")).isPresent();
+        assertThatThrownBy(() -> userService.createUser(new UserRequestDto("Other", "alice@example.com", 30)))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+
+        userService.updateUser(alice.getId(), new UserRequestDto("Alice", "alice@new.com", 29));
+        assertThat(userRepository.findByEmail("alice@new.com")).isPresent();
+        assertThat(userRepository.findByEmail("alice@example.com")).isEmpty();
+        userService.createUser(new UserRequestDto("Second Alice", "alice@example.com", 31));
+
+        userService.deleteUser(alice.getId());
+        assertThat(userRepository.findByEmail("alice@new.com")).isEmpty();
+        assertThat(userService.getAllUsers()).extracting(UserResponseDto::getName).containsExactly("Second Alice");
+    }
+
+    @Test
+    void testDeletedUserIsHiddenUntilPurged() {
+        UserResponseDto bob = userService.createUser(new UserRequestDto("Bob", "bob@example.com", 40));
+        userService.deleteUser(bob.getId());
+
+        assertThatThrownBy(() -> userService.getUserById(bob.getId())).isInstanceOf(UserNotFoundException.class);
+        assertThat(userService.getAllUsers()).isEmpty();
+        assertThat(rowCount(bob.getId())).isEqualTo(1);
+
+        // The email is free as soon as the user is deleted, not only once the row is purged
+        UserResponseDto newBob = userService.createUser(new UserRequestDto("New Bob", "bob@example.com", 20));
+        assertThat(userRepository.findByEmail("bob@example.com")).hasValueSatisfying(user ->
+                assertThat(user.getId()).isEqualTo(newBob.getId()));
+
+        userPurger.purge();
+
+        assertThat(rowCount(bob.getId())).isZero();
+        assertThat(rowCount(newBob.getId())).isEqualTo(1);
+        verify(kafkaProducerService).sendUserEvent(argThat(event ->
+                event.getEventType().equals("USER_PURGED") && event.getUserId().equals(bob.getId())));
+        assertThatThrownBy(() -> userService.createUser(new UserRequestDto("Other Bob", "bob@example.com", 30)))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+    }
+
+    private long rowCount(long id) {
+        return shardJdbc(ShardRoutingAspect.shardOf(id))
+                .queryForObject("select count(*) from users where id = ?", Long.class, id);
+    }
+
+    @Test
+    void testConnectionDiagnosticsTrackShardPools() {
+        assertThat(dataSource).isNotInstanceOf(ConnectionTrackingDataSource.class);
+        assertThat(shardRoutingDataSource.getResolvedDataSources().values())
+                .allSatisfy(shard -> assertThat(shard).isInstanceOf(ConnectionTrackingDataSource.class));
+
+        connectionHoldTracker.reset();
+        userService.createUser(new UserRequestDto("Alice", "alice@example.com", 28));
+
+        ConnectionHoldTracker.Report report = connectionHoldTracker.report();
+        assertThat(report.openConnections()).isZero();
+        assertThat(report.endpoints()).anySatisfy(endpoint -> {
+            assertThat(endpoint.endpoint()).isEqualTo(ConnectionHoldTracker.BACKGROUND);
+            assertThat(endpoint.connections()).isPositive();
+        });
+    }
+
+    private JdbcTemplate shardJdbc(int shard) {
+        return new JdbcTemplate(shardRoutingDataSource.getResolvedDataSources().get(shard));
+    }
+}
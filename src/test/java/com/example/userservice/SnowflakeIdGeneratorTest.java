@@ -0,0 +1,140 @@
+package com.example.userservice;
+
+import com.example.userservice.id.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long START = SnowflakeIdGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    void testConcurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        int threads = 8;
+        int idsPerThread = 200_000;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long[] ids = new long[idsPerThread];
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[threads * idsPerThread];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 1; i < ids.length; i++) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+                System.arraycopy(ids, 0, all, offset, ids.length);
+                offset += ids.length;
+            }
+
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertThat(all[i]).isNotEqualTo(all[i - 1]);
+            }
+            assertThat(SnowflakeIdGenerator.nodeIdOf(all[0])).isEqualTo(42);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExhaustedSequenceBorrowsFromNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, new MutableClock(START), 10);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 3 * 4096; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+        assertThat(SnowflakeIdGenerator.timestampOf(previous)).isEqualTo(START + 3);
+    }
+
+    @Test
+    void testSmallClockStepBackKeepsIdsIncreasing() {
+        MutableClock clock = new MutableClock(START);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock, 10);
+
+        long before = generator.nextId();
+        clock.set(START - 5);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(SnowflakeIdGenerator.timestampOf(after)).isEqualTo(START);
+    }
+
+    @Test
+    void testLargeClockStepBackIsRejected() {
+        MutableClock clock = new MutableClock(START);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock, 10);
+
+        generator.nextId();
+        clock.set(START - 11);
+
+        assertThatThrownBy(generator::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Clock moved backwards");
+    }
+
+    private static class MutableClock extends Clock {
+
+        private final AtomicLong millis;
+
+        MutableClock(long millis) {
+            this.millis = new AtomicLong(millis);
+        }
+
+        void set(long value) {
+            millis.set(value);
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
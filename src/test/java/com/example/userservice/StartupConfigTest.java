@@ -0,0 +1,42 @@
+package com.example.userservice;
+
+import com.example.userservice.dto.UserRequestDto;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.kafka.KafkaProducerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The prod profile turns on lazy initialization; beans that only act at startup must still run.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lazy-init;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.main.lazy-initialization=true"
+})
+@DirtiesContext
+class StartupConfigTest {
+
+    @Autowired
+    private UserService userService;
+
+    @MockBean
+    private KafkaProducerService kafkaProducerService;
+
+    @Test
+    void testUserCanBeCreatedWithLazyInitialization() {
+        UserResponseDto created = userService.createUser(new UserRequestDto("Alice", "alice@example.com", 28));
+
+        assertThat(created.getId()).isPositive();
+        assertThat(userService.getUserById(created.getId()).getEmail()).isEqualTo("alice@example.com");
+    }
+}
@@ -71,7 +71,7 @@ class UserControllerTest {
                 new UserRequestDto("Jane Doe", "jane@example.com", 25));
         mockMvc.perform(get("/api/users/{id}", createdUser.getId()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(createdUser.getId()))
+                .andExpect(jsonPath("$.id").value(String.valueOf(createdUser.getId())))
                 .andExpect(jsonPath("$.name").value("Jane Doe"))
                 .andExpect(jsonPath("$.email").value("jane@example.com"))
                 .andExpect(jsonPath("$.age").value(25));
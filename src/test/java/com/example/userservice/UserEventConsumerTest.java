@@ -0,0 +1,130 @@
+package com.example.userservice;
+
+import com.example.userservice.config.KafkaConsumerConfig;
+import com.example.userservice.event.UserEvent;
+import com.example.userservice.service.kafka.UserEventConsumer;
+import com.example.userservice.service.kafka.UserProjection;
+import com.example.userservice.service.kafka.UserProjectionStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ssl.SslAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(
+        classes = UserEventConsumerTest.TestConfig.class,
+        properties = {
+                "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+                "spring.kafka.producer.key-serializer=org.apache.kafka.common.serialization.StringSerializer",
+                "spring.kafka.producer.value-serializer=org.springframework.kafka.support.serializer.JsonSerializer",
+                "spring.application.name=user-service-test",
+                "app.kafka.topic.user-events=user-events",
+                "app.kafka.projection.enabled=true",
+                "app.kafka.projection.snapshot-path=target/test-projection/${random.uuid}.snapshot"
+        }
+)
+@EmbeddedKafka(partitions = 2, topics = "user-events")
+class UserEventConsumerTest {
+
+    @Autowired
+    private KafkaTemplate<String, UserEvent> kafkaTemplate;
+
+    @Autowired
+    private UserProjectionStore projectionStore;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Test
+    void testProjectionFollowsEventsAndSurvivesSnapshot() throws Exception {
+        kafkaTemplate.send("user-events", "1", UserEvent.createUserCreatedEvent(1L, "alice@example.com", "Alice"));
+        kafkaTemplate.send("user-events", "2", UserEvent.createUserCreatedEvent(2L, "bob@example.com", "Bob"));
+        kafkaTemplate.send("user-events", "1", UserEvent.createUserUpdatedEvent(1L, "alice@new.com", "Alice B"));
+        kafkaTemplate.send("user-events", "2", UserEvent.createUserDeletedEvent(2L, "bob@example.com", "Bob"));
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            assertThat(projectionStore.get(1L)).contains(new UserProjection(1L, "Alice B", "alice@new.com"));
+            assertThat(projectionStore.get(2L)).isEmpty();
+        });
+
+        Path snapshot = Files.createTempDirectory("projection").resolve("users.snapshot");
+        projectionStore.writeSnapshot(snapshot);
+
+        UserProjectionStore restored = new UserProjectionStore();
+        restored.loadSnapshot(snapshot);
+        assertThat(restored.size()).isEqualTo(projectionStore.size());
+        assertThat(restored.get(2L)).isEmpty();
+        assertThat(restored.get(1L)).contains(new UserProjection(1L, "Alice B", "alice@new.com"));
+        assertThat(restored.offsets()).isEqualTo(projectionStore.offsets());
+    }
+
+    @Test
+    void testRestartResumesFromSnapshotOffsets() throws Exception {
+        kafkaTemplate.send("user-events", "10", UserEvent.createUserCreatedEvent(10L, "carol@example.com", "Carol")).get();
+        SendResult<String, UserEvent> dave = kafkaTemplate.send("user-events", "11",
+                UserEvent.createUserCreatedEvent(11L, "dave@example.com", "Dave")).get();
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            assertThat(projectionStore.get(10L)).isPresent();
+            assertThat(projectionStore.get(11L)).isPresent();
+        });
+
+        // The snapshot disagrees with the topic about Dave, so replaying from the beginning would show
+        Path snapshot = Files.createTempDirectory("projection").resolve("users.snapshot");
+        projectionStore.writeSnapshot(snapshot);
+        UserProjectionStore saved = new UserProjectionStore();
+        saved.loadSnapshot(snapshot);
+        TopicPartition davePartition = new TopicPartition("user-events", dave.getRecordMetadata().partition());
+        saved.apply(UserEvent.createUserUpdatedEvent(11L, "dave@snapshot.com", "Dave S"), davePartition, 0);
+        saved.writeSnapshot(snapshot);
+
+        kafkaTemplate.send("user-events", "10", UserEvent.createUserUpdatedEvent(10L, "carol@new.com", "Carol B")).get();
+
+        try (ConfigurableApplicationContext restarted = new SpringApplicationBuilder(TestConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.kafka.bootstrap-servers=" + embeddedKafka.getBrokersAsString(),
+                        "--app.kafka.topic.user-events=user-events",
+                        "--app.kafka.projection.enabled=true",
+                        "--app.kafka.projection.snapshot-path=" + snapshot)) {
+            UserProjectionStore restored = restarted.getBean(UserProjectionStore.class);
+            await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                    assertThat(restored.get(10L)).contains(new UserProjection(10L, "Carol B", "carol@new.com")));
+            assertThat(restored.get(11L)).contains(new UserProjection(11L, "Dave S", "dave@snapshot.com"));
+        }
+
+        // Both instances read every partition, so the running one sees the update as well
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                assertThat(projectionStore.get(10L)).contains(new UserProjection(10L, "Carol B", "carol@new.com")));
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({KafkaAutoConfiguration.class, SslAutoConfiguration.class})
+    @Import({KafkaConsumerConfig.class, UserEventConsumer.class})
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.userservice;
+
+import com.example.userservice.config.BinaryFormatsConfig;
+import com.example.userservice.config.UserResponseSerializerConfig;
+import com.example.userservice.controller.UserController;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.dto.UserResponseDtoSerializer;
+import com.example.userservice.service.UserService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserController.class)
+@Import({BinaryFormatsConfig.class, UserResponseSerializerConfig.class})
+class UserListContentNegotiationTest {
+
+    private static final List<UserResponseDto> USERS = List.of(
+            new UserResponseDto(1L, "Иван Иванов", "ivan@example.com", 25, LocalDateTime.of(2024, 1, 15, 10, 30)),
+            new UserResponseDto(2L, "Anna", "anna@example.com", 31, LocalDateTime.of(2024, 2, 1, 8, 0, 5, 120_000_000)));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        when(userService.getAllUsers()).thenReturn(USERS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/json", "application/cbor", "application/x-jackson-smile"})
+    void testListIsServedInRequestedFormat(String format) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users").accept(format))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getResponse().getContentType()).startsWith(format);
+        List<UserResponseDto> users = reader(format).readValue(result.getResponse().getContentAsByteArray(),
+                new TypeReference<List<UserResponseDto>>() {
+                });
+        assertThat(users).isEqualTo(USERS);
+    }
+
+    @Test
+    void testHandWrittenSerializerIsUsedWithDefaultSettings() throws Exception {
+        assertThat(objectMapper.getSerializerProviderInstance().findValueSerializer(UserResponseDto.class))
+                .isInstanceOf(UserResponseDtoSerializer.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"*/*", "application/json, application/cbor;q=0.5"})
+    void testJsonStaysTheDefault(String accept) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users").header("Accept", accept))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(MediaType.parseMediaType(result.getResponse().getContentType()).isCompatibleWith(MediaType.APPLICATION_JSON))
+                .isTrue();
+    }
+
+    private static ObjectMapper reader(String format) {
+        ObjectMapper mapper = switch (format) {
+            case "application/cbor" -> new ObjectMapper(new CBORFactory());
+            case "application/x-jackson-smile" -> new ObjectMapper(new SmileFactory());
+            default -> new ObjectMapper();
+        };
+        return mapper.registerModule(new JavaTimeModule());
+    }
+}
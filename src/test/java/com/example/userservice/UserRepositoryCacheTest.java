@@ -0,0 +1,143 @@
+package com.example.userservice;
+
+import com.example.userservice.config.IdGeneratorConfig;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Every repository call runs in its own transaction and persistence context here,
+ * so repeated lookups can only be served by the second-level cache. The slice has no
+ * IdGenerator of its own, so the application's is imported.
+ */
+@DataJpaTest
+@Import(IdGeneratorConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void testRepeatedFindByIdHitsDatabaseOnce() {
+        Long id = userRepository.save(new User(null, "Alice", "alice@example.com", 28, null, null)).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(userRepository.findById(id)).isPresent();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testRepeatedFindByEmailHitsDatabaseOnce() {
+        userRepository.save(new User(null, "Bob", "bob@example.com", 32, null, null));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(userRepository.findByEmail("bob@example.com")).isPresent();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testFindByEmailReturnsNewUserAfterEmailIsReused() {
+        User deleted = userRepository.save(new User(null, "Erin", "erin@example.com", 29, null, null));
+        assertThat(userRepository.findByEmail("erin@example.com")).isPresent();
+        deleted.setDeletedAt(LocalDateTime.now());
+        userRepository.save(deleted);
+
+        assertThat(userRepository.findByEmail("erin@example.com")).isEmpty();
+        Long reusedBy = userRepository.save(new User(null, "New Erin", "erin@example.com", 30, null, null)).getId();
+        assertThat(userRepository.findByEmail("erin@example.com")).hasValueSatisfying(user ->
+                assertThat(user.getId()).isEqualTo(reusedBy));
+        assertThatThrownBy(() -> userRepository.save(new User(null, "Erin 3", "erin@example.com", 31, null, null)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void testStaleWriteDoesNotRestoreDeletedUser() {
+        Long id = userRepository.save(new User(null, "Frank", "frank@example.com", 50, null, null)).getId();
+        TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionManager);
+        concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User stale = userRepository.findById(id).orElseThrow();
+            concurrentTransaction.executeWithoutResult(deleting -> {
+                User user = userRepository.findById(id).orElseThrow();
+                user.setDeletedAt(LocalDateTime.now());
+            });
+            stale.setName("Frank B");
+            userRepository.flush();
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(userRepository.findByEmail("frank@example.com")).isEmpty();
+        assertThat(userRepository.findByIdForUpdate(id)).isEmpty();
+    }
+
+    @Test
+    void testRepeatedPageQueryHitsDatabaseOnceUntilUsersChange() {
+        userRepository.save(new User(null, "Carol", "carol@example.com", 41, null, null));
+        statistics.clear();
+
+        assertThat(userRepository.findPageAfter(Long.MIN_VALUE, Limit.of(10))).hasSize(1);
+        assertThat(userRepository.findPageAfter(Long.MIN_VALUE, Limit.of(10))).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        userRepository.save(new User(null, "Dave", "dave@example.com", 35, null, null));
+        assertThat(userRepository.findPageAfter(Long.MIN_VALUE, Limit.of(10))).hasSize(2);
+    }
+
+    @Test
+    void testFullListIsNotCached() {
+        userRepository.save(new User(null, "Carol", "carol@example.com", 41, null, null));
+        statistics.clear();
+
+        assertThat(userRepository.findAllAsResponseDto()).hasSize(1);
+        assertThat(userRepository.findAllAsResponseDto()).hasSize(1);
+        assertThat(statistics.getQueryCachePutCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.userservice;
+
+import com.example.userservice.config.UserResponseSerializerConfig;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.dto.UserResponseDtoSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserResponseDtoSerializerTest {
+
+    private final ObjectMapper beanMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ObjectMapper customMapper = beanMapper.copy()
+            .registerModule(new SimpleModule().addSerializer(UserResponseDto.class, new UserResponseDtoSerializer()));
+
+    static Stream<UserResponseDto> users() {
+        return Stream.of(
+                new UserResponseDto(1L, "Иван Иванов", "ivan@example.com", 25, LocalDateTime.of(2024, 1, 15, 10, 30)),
+                new UserResponseDto(2L, "Quote \" Name", "q@example.com", 40, LocalDateTime.of(2024, 1, 15, 10, 30, 5, 120_000_000)),
+                new UserResponseDto(3L, "Nano", "n@example.com", 33, LocalDateTime.of(999, 12, 31, 23, 59, 59, 1)),
+                new UserResponseDto(4L, "Far", "f@example.com", 18, LocalDateTime.of(12024, 6, 1, 0, 0)),
+                new UserResponseDto(null, null, null, null, null)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("users")
+    void testWritesSameJsonAsBeanSerializer(UserResponseDto user) throws Exception {
+        assertThat(customMapper.writeValueAsString(user)).isEqualTo(beanMapper.writeValueAsString(user));
+    }
+
+    @Test
+    void testWritesIdAsString() throws Exception {
+        UserResponseDto user = new UserResponseDto(370604083934920704L, "Big", "big@example.com", 30, null);
+        assertThat(customMapper.writeValueAsString(user)).startsWith("{\"id\":\"370604083934920704\",");
+    }
+
+    @Test
+    void testRegisteredOnlyWhenJacksonSettingsKeepTheDefaultOutput() throws Exception {
+        Jackson2ObjectMapperBuilder defaults = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        UserResponseSerializerConfig.registerIfEquivalent(defaults);
+        assertThat(defaults.build().getSerializerProviderInstance().findValueSerializer(UserResponseDto.class))
+                .isInstanceOf(UserResponseDtoSerializer.class);
+
+        Jackson2ObjectMapperBuilder snakeCase = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        UserResponseSerializerConfig.registerIfEquivalent(snakeCase);
+        ObjectMapper mapper = snakeCase.build();
+        assertThat(mapper.getSerializerProviderInstance().findValueSerializer(UserResponseDto.class))
+                .isNotInstanceOf(UserResponseDtoSerializer.class);
+        assertThat(mapper.writeValueAsString(new UserResponseDto(1L, "A", "a@example.com", 20,
+                LocalDateTime.of(2024, 1, 15, 10, 30)))).contains("\"created_at\"");
+    }
+}
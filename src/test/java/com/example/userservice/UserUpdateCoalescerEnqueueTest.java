@@ -0,0 +1,88 @@
+package com.example.userservice;
+
+import com.example.userservice.dto.UserRequestDto;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.exception.EmailAlreadyExistsException;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.UserUpdateCoalescer;
+import com.example.userservice.service.kafka.KafkaProducerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ack=enqueue answers before the flush, so the checks it can make up front must happen before
+ * anything is parked.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind-enqueue;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.users.write-behind.enabled=true",
+        "app.users.write-behind.window-ms=600000",
+        "app.users.write-behind.ack=enqueue"
+})
+@DirtiesContext
+class UserUpdateCoalescerEnqueueTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserUpdateCoalescer coalescer;
+
+    @MockBean
+    private KafkaProducerService kafkaProducerService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testAcceptedUpdateIsWrittenOnFlush() {
+        UserResponseDto created = userService.createUser(new UserRequestDto("Alice", "alice@example.com", 28));
+
+        UserResponseDto accepted = userService.updateUser(created.getId(), new UserRequestDto("Alice", "alice@new.com", 29));
+        assertThat(accepted.getCreatedAt()).isEqualTo(created.getCreatedAt());
+        assertThat(userService.getUserById(created.getId()).getEmail()).isEqualTo("alice@example.com");
+
+        coalescer.flush();
+        assertThat(userService.getUserById(created.getId())).isEqualTo(accepted);
+    }
+
+    @Test
+    void testUpdateOfMissingOrDeletedUserIsRejected() {
+        Long id = userService.createUser(new UserRequestDto("Alice", "alice@example.com", 28)).getId();
+        userService.deleteUser(id);
+
+        assertThatThrownBy(() -> userService.updateUser(id, new UserRequestDto("Alice", "alice@example.com", 29)))
+                .isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userService.updateUser(id + 1, new UserRequestDto("Bob", "bob@example.com", 32)))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    void testUpdateToTakenEmailIsRejected() {
+        Long alice = userService.createUser(new UserRequestDto("Alice", "alice@example.com", 28)).getId();
+        userService.createUser(new UserRequestDto("Bob", "bob@example.com", 32));
+
+        assertThatThrownBy(() -> userService.updateUser(alice, new UserRequestDto("Alice", "bob@example.com", 28)))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+        coalescer.flush();
+        assertThat(userService.getUserById(alice).getEmail()).isEqualTo("alice@example.com");
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.userservice;
+
+import com.example.userservice.dto.UserRequestDto;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.exception.EmailAlreadyExistsException;
+import com.example.userservice.exception.UpdateOutcomeUnknownException;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.UserUpdateCoalescer;
+import com.example.userservice.service.kafka.KafkaProducerService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The flusher's window is effectively infinite here; tests flush by hand once the updates are parked.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.users.write-behind.enabled=true",
+        "app.users.write-behind.window-ms=600000",
+        "app.users.write-behind.ack=flush",
+        "app.users.write-behind.ack-timeout-ms=1000"
+})
+@DirtiesContext
+class UserUpdateCoalescerTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserUpdateCoalescer coalescer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private KafkaProducerService kafkaProducerService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testUpdatesToOneUserAreWrittenOnce() {
+        Long id = userService.createUser(new UserRequestDto("Alice", "alice@example.com", 28)).getId();
+        DistributionSummary coalescingFactor = meterRegistry.get("users.write_behind.coalescing_factor").summary();
+        long writesBefore = coalescingFactor.count();
+        double requestsBefore = meterRegistry.get("users.write_behind.requests").counter().count();
+
+        List<CompletableFuture<UserResponseDto>> responses = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            int age = 28 + i;
+            responses.add(CompletableFuture.supplyAsync(() ->
+                    userService.updateUser(id, new UserRequestDto("Alice", "alice@example.com", age))));
+        }
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.get("users.write_behind.requests").counter().count() - requestsBefore == 10);
+        coalescer.flush();
+
+        UserResponseDto stored = userService.getUserById(id);
+        for (CompletableFuture<UserResponseDto> response : responses) {
+            assertThat(response.join()).isEqualTo(stored);
+        }
+        assertThat(coalescingFactor.count() - writesBefore).isEqualTo(1);
+        verify(kafkaProducerService, times(1)).sendUserEvent(argThat(event ->
+                event.getEventType().equals("USER_UPDATED") && event.getUserId().equals(id)));
+    }
+
+    @Test
+    void testFailedUpdateDoesNotFailTheRestOfTheBatch() {
+        Long alice = userService.createUser(new UserRequestDto("Alice", "alice@example.com", 28)).getId();
+        userService.createUser(new UserRequestDto("Bob", "bob@example.com", 32));
+        Long carol = userService.createUser(new UserRequestDto("Carol", "carol@example.com", 41)).getId();
+        double requestsBefore = meterRegistry.get("users.write_behind.requests").counter().count();
+
+        CompletableFuture<UserResponseDto> duplicate = CompletableFuture.supplyAsync(() ->
+                userService.updateUser(alice, new UserRequestDto("Alice", "bob@example.com", 28)));
+        CompletableFuture<UserResponseDto> valid = CompletableFuture.supplyAsync(() ->
+                userService.updateUser(carol, new UserRequestDto("Carol", "carol@new.com", 42)));
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.get("users.write_behind.requests").counter().count() - requestsBefore == 2);
+        coalescer.flush();
+
+        assertThat(duplicate).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(Exception.class)
+                .withCauseInstanceOf(EmailAlreadyExistsException.class);
+        assertThat(valid.join().getEmail()).isEqualTo("carol@new.com");
+        assertThat(userService.getUserById(alice).getEmail()).isEqualTo("alice@example.com");
+    }
+
+    @Test
+    void testUpdateNotWrittenInTimeIsWithdrawn() {
+        Long id = userService.createUser(new UserRequestDto("Alice", "alice@example.com", 28)).getId();
+
+        assertThatThrownBy(() -> userService.updateUser(id, new UserRequestDto("Alice", "alice@new.com", 29)))
+                .isInstanceOf(UpdateOutcomeUnknownException.class)
+                .hasMessageContaining("withdrawn");
+        coalescer.flush();
+
+        assertThat(userService.getUserById(id).getEmail()).isEqualTo("alice@example.com");
+        assertThat(meterRegistry.get("users.write_behind.pending").gauge().value()).isZero();
+    }
+}
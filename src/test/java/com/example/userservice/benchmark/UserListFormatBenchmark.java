@@ -0,0 +1,135 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.dto.UserResponseDtoSerializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Client-side cost of a GET /api/users body of {@code rows} users per response format, with and
+ * without gzip (what Tomcat sends above server.compression.min-response-size). Bytes on the wire
+ * are printed before the run; the benchmark measures decoding them back into DTOs.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.userservice.benchmark.UserListFormatBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserListFormatBenchmark {
+
+    private static final TypeReference<List<UserResponseDto>> USER_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private ObjectMapper mapper;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        body = encode(mapper.writeValueAsBytes(users(rows)), encoding);
+    }
+
+    @Benchmark
+    public List<UserResponseDto> decode() throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        if (encoding.equals("gzip")) {
+            in = new GZIPInputStream(in);
+        }
+        return mapper.readValue(in, USER_LIST);
+    }
+
+    /** Same setup as the service's converters: Boot's date settings plus the custom serializer. */
+    static ObjectMapper mapper(String format) {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        return new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .registerModule(new SimpleModule().addSerializer(UserResponseDto.class, new UserResponseDtoSerializer()))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    static List<UserResponseDto> users(int rows) {
+        List<UserResponseDto> users = new ArrayList<>(rows);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_000_000);
+        for (int i = 0; i < rows; i++) {
+            users.add(new UserResponseDto((long) i, "User " + i, "user" + i + "@example.com", 20 + i % 50,
+                    createdAt.plusSeconds(i)));
+        }
+        return users;
+    }
+
+    static byte[] encode(byte[] payload, String encoding) throws IOException {
+        if (!encoding.equals("gzip")) {
+            return payload;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        return compressed.toByteArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-6s %6s %10s %10s%n", "format", "rows", "identity", "gzip");
+        for (int rows : new int[]{100, 1000}) {
+            for (String format : new String[]{"json", "cbor", "smile"}) {
+                byte[] payload = mapper(format).writeValueAsBytes(users(rows));
+                System.out.printf("%-6s %6d %10d %10d%n", format, rows, payload.length, encode(payload, "gzip").length);
+            }
+        }
+
+        Options options = new OptionsBuilder()
+                .include(UserListFormatBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
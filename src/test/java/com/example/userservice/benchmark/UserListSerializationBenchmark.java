@@ -0,0 +1,109 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.dto.UserResponseDtoSerializer;
+import com.example.userservice.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the GET /api/users body, per list of {@code rows} users.
+ * Divide {@code gc.alloc.rate.norm} by {@code rows} for bytes per row.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.userservice.benchmark.UserListSerializationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserListSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private List<User> entities;
+    private List<UserResponseDto> dtos;
+    private ObjectMapper beanMapper;
+    private ObjectMapper customMapper;
+
+    @Setup
+    public void setUp() {
+        entities = new ArrayList<>(rows);
+        dtos = new ArrayList<>(rows);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_000_000);
+        for (int i = 0; i < rows; i++) {
+            User user = new User((long) i, "User " + i, "user" + i + "@example.com", 20 + i % 50, createdAt, null);
+            entities.add(user);
+            dtos.add(toDto(user));
+        }
+
+        beanMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        customMapper = beanMapper.copy()
+                .registerModule(new SimpleModule().addSerializer(UserResponseDto.class, new UserResponseDtoSerializer()));
+    }
+
+    /** Previous path: entities mapped to DTOs, then reflective bean serialization. */
+    @Benchmark
+    public void entityMappingWithBeanSerializer() throws IOException {
+        List<UserResponseDto> mapped = new ArrayList<>(entities.size());
+        for (User user : entities) {
+            mapped.add(toDto(user));
+        }
+        beanMapper.writeValue(OutputStream.nullOutputStream(), mapped);
+    }
+
+    /** Projection path: DTOs come straight from the query, bean serialization. */
+    @Benchmark
+    public void projectionWithBeanSerializer() throws IOException {
+        beanMapper.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+
+    /** Projection path with the hand-written serializer. */
+    @Benchmark
+    public void projectionWithCustomSerializer() throws IOException {
+        customMapper.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+
+    private static UserResponseDto toDto(User user) {
+        return new UserResponseDto(user.getId(), user.getName(), user.getEmail(), user.getAge(), user.getCreatedAt());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(UserListSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.userservice.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Ids and emails of one worker's users. The first {@code hotKeyFraction} of the users form
+ * the hot set that receives {@code hotKeyShare} of the keyed requests.
+ */
+class KeySpace {
+
+    record Key(long id, String email) {
+    }
+
+    private final List<Key> keys = new ArrayList<>();
+    private final double hotKeyFraction;
+    private final double hotKeyShare;
+
+    KeySpace(double hotKeyFraction, double hotKeyShare) {
+        this.hotKeyFraction = hotKeyFraction;
+        this.hotKeyShare = hotKeyShare;
+    }
+
+    synchronized void add(long id, String email) {
+        keys.add(new Key(id, email));
+    }
+
+    synchronized Key pick(Random random) {
+        if (keys.isEmpty()) {
+            return null;
+        }
+        int hotKeys = Math.max(1, (int) (keys.size() * hotKeyFraction));
+        int index = random.nextDouble() < hotKeyShare
+                ? random.nextInt(hotKeys)
+                : random.nextInt(keys.size());
+        return keys.get(index);
+    }
+
+    synchronized void remove(long id) {
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i).id() == id) {
+                // Swap in the newest user so the rest of the hot set keeps its place
+                int last = keys.size() - 1;
+                keys.set(i, keys.get(last));
+                keys.remove(last);
+                return;
+            }
+        }
+    }
+
+    synchronized int size() {
+        return keys.size();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.userservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Data;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result of one load-test run: per-operation throughput, HTTP status counts and latency
+ * percentiles in milliseconds. Stored as JSON so runs can be compared with
+ * {@link LoadTestReportComparison}.
+ */
+@Data
+public class LoadTestReport {
+
+    static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private String runName;
+    private String target;
+    private long seed;
+    private int concurrency;
+    private double measuredSeconds;
+    private Map<WorkloadModel.Operation, OperationStats> operations = new LinkedHashMap<>();
+
+    @Data
+    public static class OperationStats {
+        private long count;
+        private long errors;
+        private double throughputPerSecond;
+        private Map<Integer, Long> statusCounts = new TreeMap<>();
+        private double p50Millis;
+        private double p90Millis;
+        private double p99Millis;
+        private double p999Millis;
+        private double maxMillis;
+
+        static OperationStats of(Histogram latencyMicros, Map<Integer, Long> statusCounts, long errors,
+                                 double measuredSeconds) {
+            OperationStats stats = new OperationStats();
+            stats.setCount(latencyMicros.getTotalCount());
+            stats.setErrors(errors);
+            stats.setThroughputPerSecond(latencyMicros.getTotalCount() / measuredSeconds);
+            stats.getStatusCounts().putAll(statusCounts);
+            stats.setP50Millis(millis(latencyMicros.getValueAtPercentile(50)));
+            stats.setP90Millis(millis(latencyMicros.getValueAtPercentile(90)));
+            stats.setP99Millis(millis(latencyMicros.getValueAtPercentile(99)));
+            stats.setP999Millis(millis(latencyMicros.getValueAtPercentile(99.9)));
+            stats.setMaxMillis(millis(latencyMicros.getMaxValue()));
+            return stats;
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    public double totalThroughputPerSecond() {
+        return operations.values().stream().mapToDouble(OperationStats::getThroughputPerSecond).sum();
+    }
+
+    public static LoadTestReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadTestReport.class);
+    }
+
+    public void write(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("Run '%s' against %s: %d workers, %.1f s measured, %.1f req/s total%n",
+                runName, target, concurrency, measuredSeconds, totalThroughputPerSecond()));
+        table.append(String.format("%-8s %9s %7s %10s %9s %9s %9s %9s %9s  %s%n",
+                "op", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses"));
+        operations.forEach((operation, stats) -> table.append(String.format(
+                "%-8s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                operation, stats.getCount(), stats.getErrors(), stats.getThroughputPerSecond(),
+                stats.getP50Millis(), stats.getP90Millis(), stats.getP99Millis(), stats.getP999Millis(),
+                stats.getMaxMillis(), stats.getStatusCounts())));
+        return table.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.userservice.loadtest;
+
+import java.nio.file.Path;
+
+/**
+ * Prints throughput and latency deltas of a candidate run against a baseline run.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.userservice.loadtest.LoadTestReportComparison \
+ *     -Dexec.args="target/loadtest/baseline.json target/loadtest/candidate.json"
+ * </pre>
+ */
+public class LoadTestReportComparison {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: LoadTestReportComparison <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        LoadTestReport baseline = LoadTestReport.read(Path.of(args[0]));
+        LoadTestReport candidate = LoadTestReport.read(Path.of(args[1]));
+        System.out.print(compare(baseline, candidate));
+    }
+
+    static String compare(LoadTestReport baseline, LoadTestReport candidate) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("'%s' vs baseline '%s': total req/s %.1f -> %.1f (%s)%n",
+                candidate.getRunName(), baseline.getRunName(),
+                baseline.totalThroughputPerSecond(), candidate.totalThroughputPerSecond(),
+                delta(baseline.totalThroughputPerSecond(), candidate.totalThroughputPerSecond())));
+        table.append(String.format("%-8s %22s %22s %22s %14s%n", "op", "req/s", "p50 ms", "p99 ms", "errors"));
+        baseline.getOperations().forEach((operation, before) -> {
+            LoadTestReport.OperationStats after = candidate.getOperations().get(operation);
+            if (after == null) {
+                table.append(String.format("%-8s missing from candidate%n", operation));
+                return;
+            }
+            table.append(String.format("%-8s %22s %22s %22s %6d -> %-6d%n", operation,
+                    change(before.getThroughputPerSecond(), after.getThroughputPerSecond()),
+                    change(before.getP50Millis(), after.getP50Millis()),
+                    change(before.getP99Millis(), after.getP99Millis()),
+                    before.getErrors(), after.getErrors()));
+        });
+        return table.toString();
+    }
+
+    private static String change(double before, double after) {
+        return String.format("%.1f -> %.1f (%s)", before, after, delta(before, after));
+    }
+
+    private static String delta(double before, double after) {
+        return before == 0 ? "n/a" : String.format("%+.1f%%", (after - before) / before * 100);
+    }
+}
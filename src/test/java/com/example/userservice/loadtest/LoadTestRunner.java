@@ -0,0 +1,267 @@
+package com.example.userservice.loadtest;
+
+import com.example.userservice.UserServiceApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-model load driver for the /api/users endpoints. Each worker runs the
+ * {@link WorkloadModel} with its own seeded random over its own share of the users, so for a given
+ * seed and concurrency every worker issues the same request sequence in every run; only how far
+ * each worker gets within the duration depends on the service. Latencies are recorded after the warmup only and written to
+ * target/loadtest/&lt;run-name&gt;.json.
+ * <p>
+ * Without {@code -Dloadtest.target} the service is started in-process on a random port with an
+ * embedded Kafka broker and the {@code loadtest} profile (in-memory H2). With
+ * {@code -Dloadtest.database=postgres} the datasource from application.properties is kept,
+ * and the users table must already exist.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.userservice.loadtest.LoadTestRunner \
+ *     -Dloadtest.run-name=candidate -Dloadtest.duration-seconds=30
+ * </pre>
+ */
+public class LoadTestRunner {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final WorkloadModel model;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Worker> workers = new ArrayList<>();
+    private final Map<WorkloadModel.Operation, Histogram> latencies = new EnumMap<>(WorkloadModel.Operation.class);
+    private final Map<WorkloadModel.Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(WorkloadModel.Operation.class);
+    private final Map<WorkloadModel.Operation, LongAdder> errors = new EnumMap<>(WorkloadModel.Operation.class);
+
+    private volatile boolean measuring;
+
+    LoadTestRunner(WorkloadModel model, String baseUrl) {
+        this.model = model;
+        this.baseUrl = baseUrl;
+        for (int index = 0; index < model.getConcurrency(); index++) {
+            workers.add(new Worker(index, new Random(model.getSeed() + index),
+                    new KeySpace(model.getHotKeyFraction(), model.getHotKeyShare()), new AtomicLong()));
+        }
+        for (WorkloadModel.Operation operation : WorkloadModel.Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        WorkloadModel model = WorkloadModel.load();
+        String target = System.getProperty("loadtest.target");
+
+        LoadTestReport report;
+        if (target != null) {
+            report = new LoadTestRunner(model, target).run();
+        } else {
+            EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1, "user-events");
+            kafka.afterPropertiesSet();
+            try (ConfigurableApplicationContext context = startService(kafka.getBrokersAsString())) {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                report = new LoadTestRunner(model, "http://localhost:" + port).run();
+            } finally {
+                kafka.destroy();
+            }
+        }
+
+        Path output = Path.of("target", "loadtest", model.getRunName() + ".json");
+        report.write(output);
+        System.out.print(report.toTable());
+        System.out.println("Report written to " + output);
+    }
+
+    private static ConfigurableApplicationContext startService(String bootstrapServers) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.kafka.bootstrap-servers=" + bootstrapServers,
+                "--logging.level.com.example.userservice=WARN"));
+        if (!"postgres".equals(System.getProperty("loadtest.database"))) {
+            args.add("--spring.profiles.active=loadtest");
+        }
+        return SpringApplication.run(UserServiceApplication.class, args.toArray(String[]::new));
+    }
+
+    LoadTestReport run() throws Exception {
+        seedUsers();
+
+        ExecutorService executor = Executors.newFixedThreadPool(model.getConcurrency());
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(model.getWarmupSeconds());
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(model.getDurationSeconds());
+        List<Future<?>> futures = new ArrayList<>();
+        for (Worker worker : workers) {
+            futures.add(executor.submit(() -> {
+                while (System.nanoTime() < end) {
+                    execute(model.nextOperation(worker.random()), worker);
+                }
+                return null;
+            }));
+        }
+
+        long now = System.nanoTime();
+        if (warmupEnd > now) {
+            TimeUnit.NANOSECONDS.sleep(warmupEnd - now);
+        }
+        measuring = true;
+        long measureStart = System.nanoTime();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+        executor.shutdown();
+
+        return buildReport(measuredSeconds);
+    }
+
+    private void seedUsers() throws IOException, InterruptedException {
+        Random random = new Random(model.getSeed() - 1);
+        for (int i = 0; i < model.getInitialUsers(); i++) {
+            HttpResponse<String> response = send(post("user" + i + "@loadtest.example.com", random));
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            // Dealt out in turn, so each worker starts with the same users in every run
+            remember(workers.get(i % workers.size()), response);
+        }
+    }
+
+    private void execute(WorkloadModel.Operation operation, Worker worker) {
+        HttpRequest request = request(operation, worker);
+        if (request == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(request);
+            record(operation, start, response.statusCode());
+            if (operation == WorkloadModel.Operation.CREATE && response.statusCode() == 201) {
+                remember(worker, response);
+            } else if (operation == WorkloadModel.Operation.DELETE && response.statusCode() == 204) {
+                worker.keySpace().remove(Long.parseLong(request.uri().getPath().substring("/api/users/".length())));
+            }
+        } catch (IOException e) {
+            record(operation, start, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest request(WorkloadModel.Operation operation, Worker worker) {
+        Random random = worker.random();
+        if (operation == WorkloadModel.Operation.LIST) {
+            String query = model.getListPageSize() > 0 ? "?limit=" + model.getListPageSize() : "";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/users" + query)).GET().build();
+        }
+        if (operation == WorkloadModel.Operation.CREATE) {
+            KeySpace.Key existing = random.nextDouble() < model.getDuplicateEmailRate()
+                    ? worker.keySpace().pick(random) : null;
+            return post(existing != null ? existing.email() : worker.newEmail(), random);
+        }
+
+        KeySpace.Key key = worker.keySpace().pick(random);
+        if (key == null) {
+            return null;
+        }
+        URI uri = URI.create(baseUrl + "/api/users/" + key.id());
+        return switch (operation) {
+            case READ -> HttpRequest.newBuilder(uri).GET().build();
+            case UPDATE -> HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body(key.email(), random)))
+                    .build();
+            case DELETE -> HttpRequest.newBuilder(uri).DELETE().build();
+            default -> throw new IllegalArgumentException("Unexpected operation " + operation);
+        };
+    }
+
+    private HttpRequest post(String email, Random random) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body(email, random)))
+                .build();
+    }
+
+    private String body(String email, Random random) {
+        return "{\"name\":\"User " + random.nextInt(1_000_000) + "\",\"email\":\"" + email
+                + "\",\"age\":" + (18 + random.nextInt(60)) + "}";
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void remember(Worker worker, HttpResponse<String> response) throws IOException {
+        JsonNode user = LoadTestReport.MAPPER.readTree(response.body());
+        worker.keySpace().add(user.get("id").asLong(), user.get("email").asText());
+    }
+
+    private void record(WorkloadModel.Operation operation, long startNanos, int status) {
+        if (!measuring) {
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        latencies.get(operation).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+        statuses.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+        // 409 is the expected outcome of a duplicate email; workers never touch each other's users
+        if (status < 0 || status >= 500) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private LoadTestReport buildReport(double measuredSeconds) {
+        LoadTestReport report = new LoadTestReport();
+        report.setRunName(model.getRunName());
+        report.setTarget(baseUrl);
+        report.setSeed(model.getSeed());
+        report.setConcurrency(model.getConcurrency());
+        report.setMeasuredSeconds(measuredSeconds);
+        for (WorkloadModel.Operation operation : WorkloadModel.Operation.values()) {
+            Map<Integer, Long> statusCounts = new ConcurrentHashMap<>();
+            statuses.get(operation).forEach((status, count) -> statusCounts.put(status, count.sum()));
+            report.getOperations().put(operation, LoadTestReport.OperationStats.of(
+                    latencies.get(operation), statusCounts, errors.get(operation).sum(), measuredSeconds));
+        }
+        return report;
+    }
+
+    /**
+     * A worker's random and its share of the users. Nothing a worker picks depends on what the
+     * others did, which is what keeps its request sequence stable across runs.
+     */
+    private record Worker(int index, Random random, KeySpace keySpace, AtomicLong emailSequence) {
+
+        String newEmail() {
+            return "user" + index + "-" + emailSequence.incrementAndGet() + "@loadtest.example.com";
+        }
+    }
+}
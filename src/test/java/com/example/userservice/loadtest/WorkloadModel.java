@@ -0,0 +1,76 @@
+package com.example.userservice.loadtest;
+
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Workload over the UserController endpoints, read from loadtest/workload.properties with
+ * system property overrides. The same seed and concurrency yield the same request sequence per worker.
+ */
+@Data
+public class WorkloadModel {
+
+    public enum Operation {
+        LIST, READ, CREATE, UPDATE, DELETE
+    }
+
+    private String runName;
+    private long seed;
+    private int concurrency;
+    private int warmupSeconds;
+    private int durationSeconds;
+    private int initialUsers;
+    private Map<Operation, Double> mix = new LinkedHashMap<>();
+    private double hotKeyFraction;
+    private double hotKeyShare;
+    private double duplicateEmailRate;
+    private int listPageSize;
+
+    public static WorkloadModel load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = WorkloadModel.class.getResourceAsStream("/loadtest/workload.properties")) {
+            properties.load(in);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            String override = System.getProperty(key);
+            if (override != null) {
+                properties.setProperty(key, override);
+            }
+        }
+
+        WorkloadModel model = new WorkloadModel();
+        model.setRunName(properties.getProperty("loadtest.run-name"));
+        model.setSeed(Long.parseLong(properties.getProperty("loadtest.seed")));
+        model.setConcurrency(Integer.parseInt(properties.getProperty("loadtest.concurrency")));
+        model.setWarmupSeconds(Integer.parseInt(properties.getProperty("loadtest.warmup-seconds")));
+        model.setDurationSeconds(Integer.parseInt(properties.getProperty("loadtest.duration-seconds")));
+        model.setInitialUsers(Integer.parseInt(properties.getProperty("loadtest.initial-users")));
+        for (Operation operation : Operation.values()) {
+            model.getMix().put(operation,
+                    Double.parseDouble(properties.getProperty("loadtest.mix." + operation.name().toLowerCase())));
+        }
+        model.setHotKeyFraction(Double.parseDouble(properties.getProperty("loadtest.hot-key.fraction")));
+        model.setHotKeyShare(Double.parseDouble(properties.getProperty("loadtest.hot-key.share")));
+        model.setDuplicateEmailRate(Double.parseDouble(properties.getProperty("loadtest.duplicate-email-rate")));
+        model.setListPageSize(Integer.parseInt(properties.getProperty("loadtest.list-page-size")));
+        return model;
+    }
+
+    public Operation nextOperation(Random random) {
+        double total = mix.values().stream().mapToDouble(Double::doubleValue).sum();
+        double point = random.nextDouble() * total;
+        for (Map.Entry<Operation, Double> entry : mix.entrySet()) {
+            point -= entry.getValue();
+            if (point < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.READ;
+    }
+}
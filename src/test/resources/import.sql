@@ -0,0 +1,5 @@
+-- Run by Hibernate after ddl-auto has created the schema (H2 in tests and the load test).
+-- H2 has no partial indexes, so ux_users_email_live (unique email among live users, see
+-- db/users-soft-delete.sql) is emulated with a column that holds the email of live users only.
+alter table users add column live_email varchar(255) generated always as (case when deleted_at is null then email end);
+alter table users add constraint ux_users_email_live unique (live_email);
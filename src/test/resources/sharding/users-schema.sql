@@ -0,0 +1,12 @@
+create table if not exists users (
+    id bigint primary key,
+    name varchar(255) not null,
+    email varchar(255) not null,
+    age integer not null,
+    created_at timestamp(6),
+    deleted_at timestamp(6),
+    -- H2 has no partial indexes: a column that holds the email of live users only, unique
+    -- like ux_users_email_live on PostgreSQL (several deleted rows may share an email)
+    live_email varchar(255) generated always as (case when deleted_at is null then email end),
+    constraint ux_users_email_live unique (live_email)
+);